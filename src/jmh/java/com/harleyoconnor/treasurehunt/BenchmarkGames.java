@@ -0,0 +1,64 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.ScriptedGuessStrategy;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless game setup shared by the benchmarks, so nothing waits on standard input.
+ *
+ * @author Harley O'Connor
+ */
+final class BenchmarkGames {
+
+    /** Number of scripted guesses each player cycles through. */
+    private static final int SCRIPTED_GUESSES = 1024;
+
+    /** Output stream which throws everything away, for benchmarking code that prints. */
+    static final PrintStream NULL_OUTPUT = new PrintStream(new OutputStream() {
+        @Override
+        public void write(final int b) {}
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {}
+    });
+
+    private BenchmarkGames() {}
+
+    static void registerTreasure () {
+        if (TreasureItems.getRegistry().size() == 0) TreasureItems.register();
+    }
+
+    /**
+     * Creates players who each cycle through their own scripted list of random guesses.
+     */
+    static List<Player> createPlayers (final int playerCount, final int boardSize, final RandomSource random) {
+        final List<Player> players = new ArrayList<>(playerCount);
+
+        for (int i = 0; i < playerCount; i++) {
+            final long[] guesses = new long[SCRIPTED_GUESSES];
+            for (int j = 0; j < SCRIPTED_GUESSES; j++) guesses[j] = Positions.of(random.nextInt(boardSize), random.nextInt(boardSize));
+
+            players.add(new Player("player" + (i + 1), new ScriptedGuessStrategy(guesses)));
+        }
+
+        return players;
+    }
+
+    /**
+     * Creates a seeded headless game with scripted players.
+     */
+    static TreasureHuntGame createGame (final int boardSize, final int playerCount, final long seed, final PrintStream output) {
+        final RandomSource random = new SplittableRandomSource(seed);
+        return new TreasureHuntGame(boardSize, Integer.MAX_VALUE, createPlayers(playerCount, boardSize, random.split()), random, output);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.living.BeliefGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.RandomGuessStrategy;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares computer players with random guessing: playGame plays whole games, counting the gold players end up with (divide gold by
+ * players for the mean score), and takeGuess times a single guess from one of many players sharing a board. The board in takeGuess
+ * isn't reset during an iteration, so on the smaller sizes it fills up and the times are for the worst case, where computer players
+ * look through the board for elements nobody has searched.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BotBenchmark {
+
+    /** Guesses each player gets in playGame. */
+    private static final int GUESSES = 20;
+    /** Players in each game of playGame. */
+    private static final int PLAYERS_PER_GAME = 4;
+    /** Players sharing the board in takeGuess. */
+    private static final int GUESSING_PLAYERS = 256;
+
+    @Param({"random", "bot"})
+    public String strategy;
+
+    @Param({"10", "64", "512"})
+    public int boardSize;
+
+    private Function<RandomSource, GuessStrategy> guessStrategyFactory;
+    private long seed;
+
+    private TreasureHuntGame guessingGame;
+    private List<Player> guessingPlayers;
+    private int nextPlayer;
+
+    /**
+     * Totals over an iteration of playGame.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Score {
+        public long gold;
+        public long players;
+    }
+
+    @Setup(Level.Iteration)
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+        this.guessStrategyFactory = this.strategy.equals("bot") ? BeliefGuessStrategy::new : RandomGuessStrategy::new;
+
+        final RandomSource random = new SplittableRandomSource(this.seed++);
+        this.guessingPlayers = this.createPlayers(GUESSING_PLAYERS, random.split());
+        this.guessingGame = new TreasureHuntGame(this.boardSize, Integer.MAX_VALUE, this.guessingPlayers, random, null);
+    }
+
+    private List<Player> createPlayers (final int playerCount, final RandomSource random) {
+        final List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) players.add(new Player("player" + (i + 1), this.guessStrategyFactory.apply(random.split())));
+        return players;
+    }
+
+    @Benchmark
+    public void playGame (final Score score) {
+        final RandomSource random = new SplittableRandomSource(this.seed++);
+        final List<Player> players = this.createPlayers(PLAYERS_PER_GAME, random.split());
+        new TreasureHuntGame(this.boardSize, GUESSES, players, random, null).gameLoop();
+
+        for (final Player player : players) score.gold += player.getGold();
+        score.players += players.size();
+    }
+
+    @Benchmark
+    public void takeGuess () {
+        this.guessingGame.takeGuess(this.guessingPlayers.get(this.nextPlayer));
+        this.nextPlayer = (this.nextPlayer + 1) % this.guessingPlayers.size();
+    }
+
+}
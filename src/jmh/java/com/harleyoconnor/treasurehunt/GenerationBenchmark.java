@@ -0,0 +1,50 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times board generation: allocating the board, then createTreasure and createMonsters.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GenerationBenchmark {
+
+    @Param({"10", "64", "512", "4096"})
+    public int boardSize;
+
+    private List<Player> players;
+    private long seed;
+
+    @Setup
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+        this.players = BenchmarkGames.createPlayers(1, this.boardSize, new SplittableRandomSource(0));
+    }
+
+    @Benchmark
+    public TreasureHuntGame generateBoard () {
+        return new TreasureHuntGame(this.boardSize, 1, this.players, new SplittableRandomSource(this.seed++), null);
+    }
+
+}
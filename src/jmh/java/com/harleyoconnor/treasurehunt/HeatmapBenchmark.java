@@ -0,0 +1,67 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.TreasureHeatmap;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times asking how much treasure is left in the quarter of the board around its centre, with the heatmap against walking the elements.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeatmapBenchmark {
+
+    @Param({"10", "64", "512"})
+    public int boardSize;
+
+    private ITreasureBoard board;
+    private TreasureHeatmap heatmap;
+
+    @Setup
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+        this.board = BenchmarkGames.createGame(this.boardSize, 1, 0, null).getTreasureGrid();
+        this.heatmap = this.board.getHeatmap();
+    }
+
+    @Benchmark
+    public long heatmapValueAround () {
+        return this.heatmap.getValueAround(this.boardSize / 2, this.boardSize / 2, this.boardSize / 4);
+    }
+
+    @Benchmark
+    public long scanValueAround () {
+        final int centre = this.boardSize / 2;
+        final int radius = this.boardSize / 4;
+        long value = 0;
+
+        for (int y = Math.max(centre - radius, 0); y <= Math.min(centre + radius, this.boardSize - 1); y++) {
+            for (int x = Math.max(centre - radius, 0); x <= Math.min(centre + radius, this.boardSize - 1); x++) {
+                final ITreasureItem treasureItem = this.board.getTreasureItem(x, y);
+                if (treasureItem != null && !this.board.isTreasureItemTaken(x, y)) value += treasureItem.getValue();
+            }
+        }
+
+        return value;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times whole real time games, with many players guessing at once on a small board while the monsters tick quickly, so players keep
+ * racing each other and the monsters for the same treasure. RealTimeGameTest checks the same games don't lose or duplicate treasure.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class RealTimeBenchmark {
+
+    @Param({"16", "64"})
+    public int boardSize;
+
+    @Param({"4", "16"})
+    public int playerCount;
+
+    @Param({"2000"})
+    public int guesses;
+
+    private TreasureHuntGame game;
+    private long seed;
+
+    @Setup(Level.Invocation)
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+
+        final RandomSource random = new SplittableRandomSource(this.seed++);
+        this.game = new TreasureHuntGame(this.boardSize, this.guesses, BenchmarkGames.createPlayers(this.playerCount, this.boardSize, random.split()),
+                random, null);
+    }
+
+    @Benchmark
+    public TreasureHuntGame realTimeLoop () throws InterruptedException {
+        this.game.realTimeLoop(50, TimeUnit.MICROSECONDS);
+        return this.game;
+    }
+
+}
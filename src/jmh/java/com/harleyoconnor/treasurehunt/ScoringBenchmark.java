@@ -0,0 +1,63 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times printPlayerResults for every player, with each player holding treasure in proportion to the board size.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({"10", "64", "512", "4096"})
+    public int boardSize;
+
+    @Param({"1", "4", "16"})
+    public int playerCount;
+
+    private TreasureHuntGame game;
+
+    @Setup
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+        this.game = BenchmarkGames.createGame(10, this.playerCount, 0, BenchmarkGames.NULL_OUTPUT);
+
+        // Give each player as much treasure as a board of this size holds on average.
+        final TreasureRegistry registry = TreasureItems.getRegistry();
+        final SplittableRandomSource random = new SplittableRandomSource(0);
+
+        for (final Player player : this.game.getPlayers())
+            for (int i = 0; i < this.boardSize * 3; i++)
+                player.addTreasure(registry.get(registry.getRandomId(random)));
+    }
+
+    @Benchmark
+    public void printPlayerResults () {
+        final List<Player> players = this.game.getPlayers();
+        for (int i = 0; i < players.size(); i++) this.game.printPlayerResults(players.get(i));
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.living.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the parts of a round: a single takeGuess, and a single moveMonsters call, which moves every monster as one batch. Each iteration
+ * builds one game with unlimited guesses on a freshly generated board, and every invocation in the iteration plays on in that game, so
+ * later guesses find less treasure and monsters have less left to eat. Games are timed with the monsters a game creates, and with
+ * extraMonsters more, which on the smallest board is enough to fill every element.
+ *
+ * @author Harley O'Connor
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TurnBenchmark {
+
+    @Param({"10", "64", "512", "4096"})
+    public int boardSize;
+
+    @Param({"1", "4", "16"})
+    public int playerCount;
+
+    @Param({"0", "1000"})
+    public int extraMonsters;
+
+    private TreasureHuntGame game;
+    private List<Player> players;
+    private int nextPlayer;
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void setup () {
+        BenchmarkGames.registerTreasure();
+        this.game = BenchmarkGames.createGame(this.boardSize, this.playerCount, this.seed++, null);
+        this.game.addMonsters(this.extraMonsters);
+        this.players = this.game.getPlayers();
+    }
+
+    @Benchmark
+    public void takeGuess () {
+        this.game.takeGuess(this.players.get(this.nextPlayer));
+        this.nextPlayer = (this.nextPlayer + 1) % this.players.size();
+    }
+
+    @Benchmark
+    public void moveMonsters () {
+        this.game.moveMonsters();
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.TreasureBoard;
+import com.harleyoconnor.treasurehunt.living.BeliefGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.ChannelGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.RandomGuessStrategy;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compact binary save of a game between rounds.
+ *
+ * The format is the magic number, format version, board size, guesses, rounds played, treasure eaten, items stolen, registry fingerprint
+ * and player count. Each player follows as their name (as a length prefixed UTF-8 string), the kind of guess strategy they play with, and
+ * distinct item count, then the id and count of each item they hold. Then come the monster count and each monster's stealth and
+ * position, and finally the board's packed arrays.
+ *
+ * @author Harley O'Connor
+ */
+final class GameSave {
+
+    private static final int MAGIC = 0x54484753; // THGS
+    private static final int VERSION = 1;
+
+    /** Kinds of guess strategy saved for each player. Players with any other strategy, such as over the network, are saved as console. */
+    private static final byte CONSOLE_STRATEGY = 0;
+    private static final byte RANDOM_STRATEGY = 1;
+    private static final byte BOT_STRATEGY = 2;
+
+    private GameSave() {}
+
+    /**
+     * Writes a save of the given game. The save is written to a temporary file and moved into place, so a crash while saving leaves
+     * the last save intact.
+     */
+    static void write (final TreasureHuntGame game, final TreasureBoard board, final File file) throws IOException {
+        final List<byte[]> names = new ArrayList<>(game.getPlayers().size());
+        int size = 8 * Integer.BYTES + Long.BYTES;
+
+        for (final Player player : game.getPlayers()) {
+            final byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IOException("Player name '" + player.getName() + "' is too long to save.");
+
+            names.add(name);
+            size += Short.BYTES + name.length + Byte.BYTES + Integer.BYTES + player.getDistinctTreasureCount() * 2 * Integer.BYTES;
+        }
+
+        size += Integer.BYTES + game.getMonsters().size() * 3 * Integer.BYTES + board.getStateSize();
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size).putInt(MAGIC).putInt(VERSION).putInt(board.getSize()).putInt(game.getGuesses())
+                .putInt(game.getRound()).putInt(game.getTreasureEaten()).putInt(game.getItemsStolen()).putLong(game.getTreasureRegistry().getFingerprint())
+                .putInt(game.getPlayers().size());
+
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            final Player player = game.getPlayers().get(i);
+            buffer.putShort((short) names.get(i).length).put(names.get(i)).put(getStrategyKind(player.getGuessStrategy()))
+                    .putInt(player.getDistinctTreasureCount());
+            player.forEachTreasure(game.getTreasureRegistry(), (treasureItem, count) -> buffer.putInt(treasureItem.getId()).putInt(count));
+        }
+
+        buffer.putInt(game.getMonsters().size());
+        for (final Monster monster : game.getMonsters())
+            buffer.putInt(monster.getStealth()).putInt(monster.getX()).putInt(monster.getY());
+
+        board.writeState(buffer);
+        buffer.flip();
+
+        final Path path = file.toPath().toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        final Path temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            try (final FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private static byte getStrategyKind (final GuessStrategy guessStrategy) {
+        if (guessStrategy instanceof RandomGuessStrategy) return RANDOM_STRATEGY;
+        if (guessStrategy instanceof BeliefGuessStrategy) return BOT_STRATEGY;
+        return CONSOLE_STRATEGY;
+    }
+
+    /**
+     * Creates a guess strategy of the given saved kind, for a player to carry on with.
+     */
+    private static GuessStrategy createGuessStrategy (final byte kind, final RandomSource random) throws IOException {
+        switch (kind) {
+            case CONSOLE_STRATEGY:
+                return ChannelGuessStrategy.CONSOLE;
+            case RANDOM_STRATEGY:
+                return new RandomGuessStrategy(random.split());
+            case BOT_STRATEGY:
+                return new BeliefGuessStrategy(random.split());
+            default:
+                throw new IOException("Unknown guess strategy kind " + kind + ".");
+        }
+    }
+
+    /**
+     * Reads a save with a single memory mapped read.
+     *
+     * @param guessStrategies Gives the guess strategy for each player by name, or null to give players the kind they were saved with.
+     * @see TreasureHuntGame#load(File, Function, RandomSource, PrintStream)
+     */
+    static TreasureHuntGame read (final File file, @Nullable final Function<String, GuessStrategy> guessStrategies, final RandomSource random, @Nullable final PrintStream output) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) throw new IOException(file + " isn't a game save.");
+            if (buffer.getInt() != VERSION) throw new IOException(file + " was saved by an unsupported version.");
+
+            final int boardSize = buffer.getInt();
+            // Each element takes at least a treasure item id and a character, so the board's state can't be bigger than the file.
+            checkRange(file, "board size", boardSize, 1, (long) Math.sqrt(buffer.capacity() / (double) (Integer.BYTES + Character.BYTES)));
+            final int area = boardSize * boardSize;
+
+            final int guesses = buffer.getInt();
+            checkRange(file, "guesses", guesses, 1, Integer.MAX_VALUE);
+            final int round = buffer.getInt();
+            checkRange(file, "rounds played", round, 0, guesses);
+            final int treasureEaten = buffer.getInt();
+            checkRange(file, "treasure eaten", treasureEaten, 0, area);
+            final int itemsStolen = buffer.getInt();
+            checkRange(file, "items stolen", itemsStolen, 0, area);
+            final TreasureRegistry treasureRegistry = TreasureItems.getRegistry();
+
+            if (buffer.getLong() != treasureRegistry.getFingerprint())
+                throw new IOException(file + " was saved with different treasure items to those registered.");
+
+            final int playerCount = buffer.getInt();
+            // Each player takes at least a name length, strategy kind and distinct item count.
+            checkRange(file, "player count", playerCount, 1, buffer.remaining() / (Short.BYTES + Byte.BYTES + Integer.BYTES));
+            final List<Player> players = new ArrayList<>(playerCount);
+
+            for (int i = 0; i < playerCount; i++) {
+                final byte[] nameBytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(nameBytes);
+
+                final String name = new String(nameBytes, StandardCharsets.UTF_8);
+                final byte strategyKind = buffer.get();
+                final Player player = new Player(name, guessStrategies != null ? guessStrategies.apply(name) : createGuessStrategy(strategyKind, random));
+
+                final int distinctCount = buffer.getInt();
+                checkRange(file, "distinct item count of " + name, distinctCount, 0, treasureRegistry.size());
+
+                for (int j = 0; j < distinctCount; j++) {
+                    final int id = buffer.getInt();
+                    checkRange(file, "treasure item id held by " + name, id, 0, treasureRegistry.size() - 1);
+                    final int count = buffer.getInt();
+                    // Players only hold treasure found on the board, so can't hold more items than it has elements.
+                    checkRange(file, "count of treasure item " + id + " held by " + name, count, 1, area);
+
+                    for (int k = 0; k < count; k++) player.addTreasure(treasureRegistry.get(id));
+                }
+
+                players.add(player);
+            }
+
+            final int monsterCount = buffer.getInt();
+            checkRange(file, "monster count", monsterCount, 0, Math.min(area, buffer.remaining() / (3 * Integer.BYTES)));
+            final List<Monster> monsters = new ArrayList<>(monsterCount);
+
+            for (int i = 0; i < monsterCount; i++) {
+                final int stealth = buffer.getInt();
+                checkRange(file, "stealth of monster " + i, stealth, Monster.MIN_STEALTH, Monster.MAX_STEALTH);
+                final int x = buffer.getInt();
+                checkRange(file, "x index of monster " + i, x, 0, boardSize - 1);
+                final int y = buffer.getInt();
+                checkRange(file, "y index of monster " + i, y, 0, boardSize - 1);
+
+                final Monster monster = new Monster(i, stealth);
+                monster.setPosition(x, y);
+                monsters.add(monster);
+            }
+
+            // The board's packed arrays must all be there.
+            final long stateSize = (long) area * (Integer.BYTES + Character.BYTES) + ((area + 63L) >>> 6) * Long.BYTES;
+            checkRange(file, "board state size", stateSize, 0, buffer.remaining());
+
+            return new TreasureHuntGame(TreasureBoard.readState(buffer, boardSize, treasureRegistry), treasureRegistry, guesses, round, players,
+                    monsters, treasureEaten, itemsStolen, random, output);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(file + " is truncated or corrupt.", e);
+        }
+    }
+
+    /**
+     * Checks a value read from a save is in range, which it can only be out of if the save was cut short or edited.
+     *
+     * @throws IOException If the value is out of range, naming the file and the value.
+     */
+    private static void checkRange (final File file, final String description, final long value, final long min, final long max) throws IOException {
+        if (value < min || value > max)
+            throw new IOException(file + " is truncated or corrupt: " + description + " " + value + " isn't between " + min + " and " + max + ".");
+    }
+
+}
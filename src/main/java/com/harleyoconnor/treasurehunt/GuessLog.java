@@ -0,0 +1,163 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.ScriptedGuessStrategy;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of the guesses made in a game. As all of a game's randomness comes from its random source, a game created from the
+ * log's seed and fed the logged guesses plays out exactly as the original did, so a log can be replayed to debug a game.
+ *
+ * The format is the magic number, format version, seed, board size, guesses, registry fingerprint and player count, followed by each
+ * player's name (as a length prefixed UTF-8 string). Then each guess is appended as its x and y index, in the order they were made,
+ * so a log cut short by a crash is still readable up to the last whole guess.
+ *
+ * @author Harley O'Connor
+ */
+public final class GuessLog implements Closeable {
+
+    private static final int MAGIC = 0x5448474C; // THGL
+    private static final int VERSION = 1;
+
+    private final FileChannel channel;
+    /** Reused for each guess, so logging doesn't allocate. */
+    private final ByteBuffer guessBuffer = ByteBuffer.allocate(2 * Integer.BYTES);
+
+    private GuessLog(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a log for a new game, replacing any existing file.
+     *
+     * @param file The file to log to.
+     * @param seed The seed of the game's random source.
+     * @param gridSize The width and height of the game's board.
+     * @param guesses The number of guesses each player gets.
+     * @param players The players taking part, in turn order.
+     * @return The log, to be given to the game with setGuessLog.
+     */
+    public static GuessLog create (final File file, final long seed, final int gridSize, final int guesses, final List<Player> players) throws IOException {
+        final List<byte[]> names = new ArrayList<>(players.size());
+        int size = 2 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+        for (final Player player : players) {
+            final byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IOException("Player name '" + player.getName() + "' is too long to log.");
+
+            names.add(name);
+            size += Short.BYTES + name.length;
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(size).putInt(MAGIC).putInt(VERSION).putLong(seed).putInt(gridSize).putInt(guesses)
+                .putLong(TreasureItems.getRegistry().getFingerprint()).putInt(players.size());
+        for (final byte[] name : names) header.putShort((short) name.length).put(name);
+        header.flip();
+
+        final Path path = file.toPath().toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try {
+            while (header.hasRemaining()) channel.write(header);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        return new GuessLog(channel);
+    }
+
+    /**
+     * Appends a guess to the log. Each guess is written straight to the file, so it survives the game crashing.
+     *
+     * @throws UncheckedIOException If the guess couldn't be written.
+     */
+    public void append (final int x, final int y) {
+        this.guessBuffer.clear();
+        this.guessBuffer.putInt(x).putInt(y).flip();
+
+        try {
+            while (this.guessBuffer.hasRemaining()) this.channel.write(this.guessBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to guess log.", e);
+        }
+    }
+
+    @Override
+    public void close () throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Recreates a logged game with a single memory mapped read. Each player is given the guesses they made, and the game is cut to the
+     * rounds that every player finished.
+     *
+     * @param file The log file.
+     * @param output The stream to print the game to, or null to run headless.
+     * @return The game, ready to replay with gameLoop.
+     * @throws IOException If the file couldn't be read, or isn't a valid log for the registered treasure items.
+     */
+    public static TreasureHuntGame replay (final File file, @Nullable final PrintStream output) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) throw new IOException(file + " isn't a guess log.");
+            if (buffer.getInt() != VERSION) throw new IOException(file + " was logged by an unsupported version.");
+
+            final long seed = buffer.getLong();
+            final int gridSize = buffer.getInt();
+            final int guesses = buffer.getInt();
+            if (gridSize < 1) throw new IOException(file + " is truncated or corrupt.");
+
+            if (buffer.getLong() != TreasureItems.getRegistry().getFingerprint())
+                throw new IOException(file + " was logged with different treasure items to those registered.");
+
+            final int playerCount = buffer.getInt();
+            if (playerCount < 1) throw new IOException(file + " is truncated or corrupt.");
+
+            final List<String> names = new ArrayList<>(playerCount);
+
+            for (int i = 0; i < playerCount; i++) {
+                final byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                names.add(new String(name, StandardCharsets.UTF_8));
+            }
+
+            final int rounds = Math.min(guesses, buffer.remaining() / (2 * Integer.BYTES) / playerCount);
+            if (rounds == 0) throw new IOException(file + " doesn't hold a whole round of guesses.");
+
+            final long[][] playerGuesses = new long[playerCount][rounds];
+
+            for (int i = 0; i < rounds * playerCount; i++)
+                playerGuesses[i % playerCount][i / playerCount] = Positions.of(buffer.getInt(), buffer.getInt());
+
+            final List<Player> players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) players.add(new Player(names.get(i), new ScriptedGuessStrategy(playerGuesses[i])));
+
+            return new TreasureHuntGame(gridSize, rounds, players, new SplittableRandomSource(seed), output);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(file + " is truncated or corrupt.", e);
+        }
+    }
+
+}
@@ -1,21 +1,100 @@
 package com.harleyoconnor.treasurehunt;
 
 import com.harleyoconnor.javautilities.InputUtils;
+import com.harleyoconnor.treasurehunt.event.JsonLinesSubscriber;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.living.BeliefGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.RandomGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.ScriptedGuessStrategy;
+import com.harleyoconnor.treasurehunt.metrics.GameMetrics;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.server.LoadTestClient;
+import com.harleyoconnor.treasurehunt.server.TreasureHuntServer;
+import com.harleyoconnor.treasurehunt.simulation.Simulation;
+import com.harleyoconnor.treasurehunt.simulation.SimulationResults;
+import com.harleyoconnor.treasurehunt.tournament.Leaderboard;
+import com.harleyoconnor.treasurehunt.tournament.Tournament;
 import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
 
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * @author Harley O'Connor
  */
 public final class Main {
 
+    /** Directory interactive games log their guesses to, or null if they aren't logged. */
+    @Nullable
+    private static final String LOG_DIRECTORY = System.getProperty("treasurehunt.log");
+    /** File interactive games are saved to after each round, or null if they aren't checkpointed. */
+    @Nullable
+    private static final File CHECKPOINT_FILE = System.getProperty("treasurehunt.checkpoint") == null ? null : new File(System.getProperty("treasurehunt.checkpoint"));
+    /** File interactive games append their events to as JSON lines, or null if they aren't written. */
+    @Nullable
+    private static final File EVENTS_FILE = System.getProperty("treasurehunt.events") == null ? null : new File(System.getProperty("treasurehunt.events"));
+
     private Main() {}
 
     public static void main (final String[] args) {
+        GameMetrics.configure(); // Enable metrics if the system properties ask for them.
         TreasureItems.register(); // Register the treasure items.
 
+        // Run headless simulations if requested, for example 'simulate 1000000 10 5 2 42'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("simulate")) {
+            simulate(args);
+            return;
+        }
+
+        // Play a headless game of scripted players if requested, for example 'script 10 5 42 alice.txt bob.txt'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("script")) {
+            script(args);
+            return;
+        }
+
+        // Play a ladder tournament if requested, for example 'tournament players.txt 10 5 4 42 20'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("tournament")) {
+            tournament(args);
+            return;
+        }
+
+        // Host games over the network if requested, for example 'server 4000 10000 1024'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("server")) {
+            serve(args);
+            return;
+        }
+
+        // Load test a local server if requested, for example 'loadtest 5000 10 5 500'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("loadtest")) {
+            loadTest(args);
+            return;
+        }
+
+        // Replay a logged game if requested, for example 'replay game.thgl'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("replay")) {
+            replay(args);
+            return;
+        }
+
+        // Carry on a saved game if requested, for example 'resume game.thgs'.
+        if (args.length > 0 && args[0].equalsIgnoreCase("resume")) {
+            resume(args);
+            return;
+        }
+
         boolean playAgain;
 
         do {
@@ -24,11 +103,14 @@ public final class Main {
             final int guesses = InputUtils.getIntInput("\nHow many guesses would you like? ");
 
             final List<String> playerNames = new ArrayList<>();
+            final List<String> botNames = new ArrayList<>();
             boolean playerNameExisted;
 
             do {
                 playerNameExisted = false;
-                final String playerName = InputUtils.getInput("\nEnter the next player's name, or 'start' to begin the game.");
+                final String input = InputUtils.getInput("\nEnter the next player's name, 'bot' to add a computer player, or 'start' to begin the game.");
+                final boolean bot = input.equalsIgnoreCase("bot");
+                final String playerName = bot ? getBotName(playerNames) : input;
 
                 if (playerNames.contains(playerName)) {
                     System.out.println("Could not add this player as there is already a player with that name.");
@@ -36,6 +118,7 @@ public final class Main {
                     continue;
                 }
 
+                if (bot) botNames.add(playerName);
                 playerNames.add(playerName);
             } while (!playerNames.get(playerNames.size() - 1).equalsIgnoreCase("start") || playerNameExisted);
 
@@ -43,13 +126,305 @@ public final class Main {
 
             if (playerNames.size() == 0) playerNames.add("player"); // Add default name 'player' if user did not enter any player names.
 
-            // Create new treasure hunt game.
-            final TreasureHuntGame treasureHuntGame = new TreasureHuntGame(boardSize, guesses, playerNames);
+            // Create new treasure hunt game, seeded so it can be replayed from its guess log.
+            final long seed = System.nanoTime();
+            final SplittableRandomSource botRandom = new SplittableRandomSource(~seed);
+
+            final List<Player> players = new ArrayList<>();
+            playerNames.forEach(name -> players.add(botNames.contains(name) ? new Player(name, new BeliefGuessStrategy(botRandom.split())) : new Player(name)));
+
+            final TreasureHuntGame treasureHuntGame = new TreasureHuntGame(boardSize, guesses, players, new SplittableRandomSource(seed), System.out);
+
+            // Chunked boards can't be saved, but their games can still be replayed from a guess log.
+            if (CHECKPOINT_FILE != null && !treasureHuntGame.canSave())
+                System.err.println("Games on boards this large can't be checkpointed, set treasurehunt.log to log guesses instead.");
+            else treasureHuntGame.setCheckpointFile(CHECKPOINT_FILE);
+
+            // Log guesses to a file named after the seed in the log directory, if one was given.
+            GuessLog guessLog = null;
+
+            if (LOG_DIRECTORY != null) {
+                try {
+                    guessLog = GuessLog.create(new File(LOG_DIRECTORY, "game-" + Long.toHexString(seed) + ".thgl"), seed, boardSize, guesses, players);
+                    treasureHuntGame.setGuessLog(guessLog);
+                } catch (IOException e) {
+                    System.err.println("Could not create guess log: " + e.getMessage());
+                }
+            }
+
+            final JsonLinesSubscriber eventsFile = subscribeEventsFile(treasureHuntGame);
+
             treasureHuntGame.gameLoop(); // Begin treasure hunt game loop.
+            close(guessLog, "guess log");
+            close(eventsFile, "events file");
 
             // Ask user if they want to go again (set to true if they input 'y').
             playAgain = InputUtils.getInput("\nWould you like to play again? (y/n) ").equalsIgnoreCase("y");
         } while (playAgain);
     }
 
+    /**
+     * @return The first name of the form 'bot N' nobody has taken.
+     */
+    private static String getBotName (final List<String> playerNames) {
+        int number = 1;
+        while (playerNames.contains("bot " + number)) number++;
+        return "bot " + number;
+    }
+
+    /**
+     * Gets the guess strategy for simulated players with the given name, printing an error if there isn't one.
+     *
+     * @param name 'random' for random guesses, or 'bot' for computer players that guess by expected value.
+     * @return Creates the strategy from a random source, or null if the name isn't known.
+     */
+    @Nullable
+    private static Function<RandomSource, GuessStrategy> getGuessStrategyFactory (final String name) {
+        if (name.equalsIgnoreCase("random")) return RandomGuessStrategy::new;
+        if (name.equalsIgnoreCase("bot")) return BeliefGuessStrategy::new;
+
+        System.err.println("Unknown guess strategy '" + name + "', expected 'random' or 'bot'.");
+        return null;
+    }
+
+    /**
+     * Runs headless games with simulated players, and prints the aggregate results.
+     *
+     * @param args The program arguments: 'simulate', then the number of games, board size, guesses, and optionally players per game,
+     *             seed and guess strategy ('random' or 'bot').
+     */
+    private static void simulate (final String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: simulate <games> <board size> <guesses> [players per game] [seed] [random|bot]");
+            return;
+        }
+
+        final Function<RandomSource, GuessStrategy> guessStrategyFactory = getGuessStrategyFactory(args.length > 6 ? args[6] : "random");
+        if (guessStrategyFactory == null) return;
+
+        final long games = Long.parseLong(args[1]);
+        final Simulation simulation = new Simulation(Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                args.length > 4 ? Integer.parseInt(args[4]) : 1, guessStrategyFactory,
+                args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime());
+
+        final long startTime = System.nanoTime();
+        final SimulationResults results = simulation.run(games);
+        final long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.println(results);
+        System.out.println("Ran in " + elapsedMillis + "ms (" + (games * 60_000 / Math.max(elapsedMillis, 1)) + " games per minute).");
+
+        final GameMetrics metrics = GameMetrics.get();
+        if (metrics != null) System.out.print("\n" + metrics);
+    }
+
+    /**
+     * Plays a headless game where each player guesses from a script file, and prints the gold each player won.
+     *
+     * @param args The program arguments: 'script', then the board size, guesses, seed, and a file of guesses (position labels such as
+     *             B7, separated by whitespace or commas) for each player. Players are named after their files.
+     */
+    private static void script (final String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: script <board size> <guesses> <seed> <guess file>...");
+            return;
+        }
+
+        final int boardSize = Integer.parseInt(args[1]);
+        final List<Player> players = new ArrayList<>();
+
+        try {
+            for (int i = 4; i < args.length; i++) {
+                final File file = new File(args[i]);
+                players.add(new Player(file.getName(), ScriptedGuessStrategy.read(file, boardSize)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not read guesses: " + e.getMessage());
+            return;
+        }
+
+        new TreasureHuntGame(boardSize, Integer.parseInt(args[2]), players, new SplittableRandomSource(Long.parseLong(args[3])), null).gameLoop();
+        players.forEach(player -> System.out.println(player.getName() + ": " + player.getGold() + " gold"));
+    }
+
+    /**
+     * Plays a ladder tournament of headless games with simulated players, and prints the leaderboard.
+     *
+     * @param args The program arguments: 'tournament', then the file of player names (one per line), board size, guesses, and
+     *             optionally players per game, seed, the number of players to list and guess strategy ('random' or 'bot').
+     */
+    private static void tournament (final String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: tournament <players file> <board size> <guesses> [players per game] [seed] [top players] [random|bot]");
+            return;
+        }
+
+        final Function<RandomSource, GuessStrategy> guessStrategyFactory = getGuessStrategyFactory(args.length > 7 ? args[7] : "random");
+        if (guessStrategyFactory == null) return;
+
+        final Tournament tournament = new Tournament(Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                args.length > 4 ? Integer.parseInt(args[4]) : 4, guessStrategyFactory,
+                args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime());
+        final int topPlayers = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+
+        try (final BufferedReader playerNames = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            final long startTime = System.nanoTime();
+            final long games = tournament.run(playerNames, Runtime.getRuntime().availableProcessors());
+            final long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+            final Leaderboard leaderboard = tournament.getLeaderboard();
+            System.out.println(games + " games, " + leaderboard.size() + " players. Top " + topPlayers + ":");
+            leaderboard.getTop(topPlayers).forEach(System.out::println);
+            System.out.println("Ran in " + elapsedMillis + "ms (" + (games * 60_000 / Math.max(elapsedMillis, 1)) + " games per minute).");
+        } catch (IOException e) {
+            System.err.println("Could not read players: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hosts games over the network until the process is stopped.
+     *
+     * @param args The program arguments: 'server', then the port, and optionally the maximum sessions and maximum total board memory
+     *             in megabytes.
+     */
+    private static void serve (final String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: server <port> [max sessions] [max board memory MB]");
+            return;
+        }
+
+        final int maxSessions = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        final long maxBoardMemory = (args.length > 3 ? Long.parseLong(args[3]) : 1024) * 1024 * 1024;
+
+        try {
+            final TreasureHuntServer server = new TreasureHuntServer(Integer.parseInt(args[1]), null, maxSessions, maxBoardMemory);
+            server.start();
+            System.out.println("Listening on port " + server.getPort() + ".");
+
+            // Sessions run on daemon threads, so keep the main thread alive.
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            System.err.println("Could not start server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a server on the loopback address and drives scripted sessions against it, printing guess latencies.
+     *
+     * @param args The program arguments: 'loadtest', then the number of sessions, board size, guesses, and optionally the number of
+     *             sessions to run at once and a file of guesses for every session to play through instead of guessing randomly.
+     */
+    private static void loadTest (final String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: loadtest <sessions> <board size> <guesses> [concurrent sessions] [guess file]");
+            return;
+        }
+
+        final int boardSize = Integer.parseInt(args[2]);
+        long[] script = null;
+
+        if (args.length > 5) {
+            try {
+                script = Positions.parseAll(new String(Files.readAllBytes(Paths.get(args[5])), StandardCharsets.US_ASCII), boardSize);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Could not read guesses: " + e.getMessage());
+                return;
+            }
+        }
+
+        final int sessions = Integer.parseInt(args[1]);
+        final int concurrency = args.length > 4 ? Integer.parseInt(args[4]) : Math.min(sessions, 1000);
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        // The server only frees a session after the client has seen its result, so leave room for sessions that are closing.
+        try (final TreasureHuntServer server = new TreasureHuntServer(0, loopback, concurrency * 2, Long.MAX_VALUE)) {
+            server.start();
+
+            final LoadTestClient client = new LoadTestClient(loopback, server.getPort(), boardSize, Integer.parseInt(args[3]), true, script);
+            System.out.println(client.run(sessions, concurrency));
+        } catch (IOException e) {
+            System.err.println("Could not start server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the game's events to the events file, if one was given.
+     *
+     * @return The subscriber writing the events, to close once the game is over, or null if they aren't written.
+     */
+    @Nullable
+    private static JsonLinesSubscriber subscribeEventsFile (final TreasureHuntGame game) {
+        if (EVENTS_FILE == null) return null;
+
+        try {
+            final JsonLinesSubscriber eventsFile = JsonLinesSubscriber.open(EVENTS_FILE);
+            game.subscribe(eventsFile);
+            return eventsFile;
+        } catch (IOException e) {
+            System.err.println("Could not open events file: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void close (@Nullable final Closeable closeable, final String description) {
+        if (closeable == null) return;
+
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            System.err.println("Could not close " + description + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays a logged game, printing it as it was played.
+     *
+     * @param args The program arguments: 'replay', then the guess log file.
+     */
+    private static void replay (final String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: replay <guess log>");
+            return;
+        }
+
+        try {
+            final TreasureHuntGame treasureHuntGame = GuessLog.replay(new File(args[1]), System.out);
+            final JsonLinesSubscriber eventsFile = subscribeEventsFile(treasureHuntGame);
+
+            treasureHuntGame.gameLoop();
+            close(eventsFile, "events file");
+        } catch (IOException e) {
+            System.err.println("Could not replay game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carries on a saved game, with each player guessing the way they were saved with, checkpointing it as usual.
+     *
+     * @param args The program arguments: 'resume', then the save file.
+     */
+    private static void resume (final String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: resume <save file>");
+            return;
+        }
+
+        try {
+            final TreasureHuntGame treasureHuntGame = TreasureHuntGame.load(new File(args[1]), new SplittableRandomSource(), System.out);
+            treasureHuntGame.setCheckpointFile(CHECKPOINT_FILE);
+            final JsonLinesSubscriber eventsFile = subscribeEventsFile(treasureHuntGame);
+
+            treasureHuntGame.gameLoop();
+            close(eventsFile, "events file");
+        } catch (IOException e) {
+            System.err.println("Could not load game: " + e.getMessage());
+        }
+    }
+
 }
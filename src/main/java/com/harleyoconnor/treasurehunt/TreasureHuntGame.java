@@ -1,270 +1,654 @@
 package com.harleyoconnor.treasurehunt;
 
-import com.harleyoconnor.javagrids.grids.Grid;
-import com.harleyoconnor.javagrids.grids.GridElement;
-import com.harleyoconnor.javautilities.InputUtils;
-import com.harleyoconnor.javautilities.IntegerUtils;
-import com.harleyoconnor.treasurehunt.grid.TreasureGridElement;
+import com.harleyoconnor.treasurehunt.event.ConsoleSubscriber;
+import com.harleyoconnor.treasurehunt.event.GameEventBus;
+import com.harleyoconnor.treasurehunt.event.GameEventSubscriber;
+import com.harleyoconnor.treasurehunt.grid.BoardRenderer;
+import com.harleyoconnor.treasurehunt.grid.ChunkedTreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.grid.TreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.TreasureHeatmap;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
 import com.harleyoconnor.treasurehunt.living.Monster;
 import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.metrics.GameMetrics;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
 import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
 import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
-import javafx.util.Pair;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
 
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Treasure Hunt Game Object. Handles the game and holds all relevant data.
  * Create a new object for each game.
  *
+ * Games without an output stream are headless: nothing is printed, and players must use guess strategies that don't need input.
+ *
+ * What happens in the game is published to its event bus. Prompts, such as the board before each guess, are printed by the game
+ * itself, while the outcomes are printed by a ConsoleSubscriber, which the game drains its events to before each prompt.
+ *
  * @author Harley O'Connor
  */
 public final class TreasureHuntGame {
 
-    private final Grid treasureGrid;
+    /** Boards at least this size are generated lazily in chunks, rather than filled up front. */
+    private static final int CHUNKED_BOARD_SIZE = 1024;
+
+    private static final String CANNOT_SAVE_MESSAGE = "Games on chunked boards can't be saved, replay them from a guess log instead.";
+
+    private final ITreasureBoard treasureGrid;
+    /** Registry snapshot taken when the game was created, so treasure item ids stay stable if the registry is reloaded. */
+    private final TreasureRegistry treasureRegistry;
     private final int gridSize;
     private final int guesses;
-    private final List<Player> players = new ArrayList<>();
+    private final List<Player> players;
+    /** Source of all randomness in the game, so a seeded game replays exactly. */
+    private final RandomSource random;
+    @Nullable
+    private final PrintStream output;
+    /** Renders the board to the output, or null if headless. */
+    @Nullable
+    private final BoardRenderer renderer;
+    /** Whether the board is rendered incrementally with ANSI cursor movement, rather than in full each turn. */
+    private boolean ansiRendering;
+    /** Live monster registry, indexed by monster id. Each monster holds its own position. */
+    private final List<Monster> monsters = new ArrayList<>();
+    /** Position each monster is moving to this round, or Positions.NONE if it is staying put, indexed by monster id. */
+    private long[] monsterMoves;
+    /** Bus events are published to, or null if nothing has subscribed. */
+    @Nullable
+    private GameEventBus events;
+    /** Prints the outcomes of the game, or null if headless. */
+    @Nullable
+    private final ConsoleSubscriber console;
+    /** Metrics to record to, or null if metrics are disabled. */
+    @Nullable
+    private final GameMetrics metrics = GameMetrics.get();
+
+    /** Number of untaken treasure items eaten by monsters. */
+    private int treasureEaten;
+    /** Number of treasure items stolen from players by monsters. Atomic as players may guess concurrently in real time games. */
+    private final AtomicInteger itemsStolen;
+    /** Number of rounds played, where each player guesses once per round. */
+    private int round;
+
+    /** Log each guess is appended to, or null if guesses aren't logged. */
+    @Nullable
+    private GuessLog guessLog;
+    /** File the game is saved to after each round, or null if it isn't checkpointed. */
+    @Nullable
+    private File checkpointFile;
+
+    /**
+     * @param gridSize The width and height of the board.
+     * @param guesses The number of guesses each player gets.
+     * @param players The players taking part.
+     * @param random The random source for the game. Shouldn't be shared with other games.
+     * @param output The stream to print the game to, or null to run headless.
+     */
+    public TreasureHuntGame (final int gridSize, final int guesses, final List<Player> players, final RandomSource random, @Nullable final PrintStream output) {
+        final long startTime = this.metrics == null ? 0 : System.nanoTime();
 
-    public TreasureHuntGame (final int gridSize, final int guesses, final List<String> playerNames) {
-        this.treasureGrid = new Grid (gridSize, gridSize, new TreasureGridElement("[ ]"));
+        this.treasureRegistry = TreasureItems.getRegistry();
         this.gridSize = gridSize;
         this.guesses = guesses;
+        this.players = players;
+        this.random = random;
+        this.output = output;
+        this.itemsStolen = new AtomicInteger();
+
+        if (gridSize >= CHUNKED_BOARD_SIZE) {
+            // The board generates its treasure as it's explored, keeping to the same treasure count as createTreasure.
+            this.treasureGrid = new ChunkedTreasureBoard(gridSize, this.treasureRegistry, random.nextIntBetween(gridSize * 2, gridSize * 5), random.nextLong());
+        } else {
+            final TreasureBoard treasureBoard = new TreasureBoard(gridSize, this.treasureRegistry);
+            this.treasureGrid = treasureBoard;
+            this.createTreasure(treasureBoard);
+        }
 
-        playerNames.forEach(name -> this.players.add(new Player(name)));
-
-        this.createTreasure();
+        this.renderer = output == null ? null : new BoardRenderer(this.treasureGrid, Channels.newChannel(output));
+        this.console = this.subscribeConsole();
         this.createMonsters();
+
+        if (this.metrics != null) this.metrics.recordGeneration(System.nanoTime() - startTime);
     }
 
     /**
-     * Populates the treasure map with a random number of random treasure at random positions.
+     * Restores a saved game. Used by GameSave.
      */
-    private void createTreasure () {
-        // Loops for a random number of times.
-        for (int i = 0; i < IntegerUtils.getRandomIntBetween(this.gridSize * 2, this.gridSize * 5); i++) {
-            // Stop creating treasure if no slots are available (this shouldn't happen if the game board is set to the recommended size).
-            if (!treasureSlotAvailable()) break;
+    TreasureHuntGame (final TreasureBoard treasureGrid, final TreasureRegistry treasureRegistry, final int guesses, final int round, final List<Player> players,
+                      final List<Monster> monsters, final int treasureEaten, final int itemsStolen, final RandomSource random, @Nullable final PrintStream output) {
+        this.treasureRegistry = treasureRegistry;
+        this.treasureGrid = treasureGrid;
+        this.gridSize = treasureGrid.getSize();
+        this.guesses = guesses;
+        this.round = round;
+        this.players = players;
+        this.treasureEaten = treasureEaten;
+        this.itemsStolen = new AtomicInteger(itemsStolen);
+        this.random = random;
+        this.output = output;
+        this.renderer = output == null ? null : new BoardRenderer(this.treasureGrid, Channels.newChannel(output));
+        this.console = this.subscribeConsole();
+
+        for (final Monster monster : monsters) {
+            this.treasureGrid.setMonster(monster.getX(), monster.getY(), monster);
+            this.monsters.add(monster);
+        }
 
-            Pair<Integer, Integer> position;
-            TreasureGridElement gridElement;
+        this.monsterMoves = new long[this.monsters.size()];
+    }
 
-            do {
-                // Gets a random position in the grid.
-                position = new Pair<>(IntegerUtils.getRandomIntBetween(0, this.gridSize - 1), IntegerUtils.getRandomIntBetween(0, this.gridSize - 1));
-                gridElement = (TreasureGridElement) this.treasureGrid.getElementAt(position);
-            } while (gridElement.getTreasureItem() != null);
+    @Nullable
+    private ConsoleSubscriber subscribeConsole () {
+        if (this.output == null) return null;
 
-            // Puts a random treasure item at the position.
-            gridElement.setTreasureItem(TreasureItems.getRandom());
-        }
+        final ConsoleSubscriber console = new ConsoleSubscriber(this.output, this.renderer, this.treasureRegistry, this.players);
+        this.subscribe(console);
+        return console;
     }
 
     /**
-     * Creates a random amount of monsters at random positions within the grid.
+     * Loads a game saved with save. The loaded game carries on with the given random source, so from then on it plays out differently
+     * to the original. Use a guess log to reproduce a game exactly.
+     *
+     * @param file The save file.
+     * @param guessStrategies Gives the guess strategy for each player, by name.
+     * @param random The random source for the rest of the game.
+     * @param output The stream to print the game to, or null to run headless.
+     * @return The game, ready to carry on with gameLoop.
+     * @throws IOException If the file couldn't be read, or isn't a valid save for the registered treasure items.
      */
-    private void createMonsters () {
-        // Loops for a random amount of times.
-        for (int i = 0; i < IntegerUtils.getRandomIntBetween(3, 5); i++) {
-            // Stop creating monsters if no slots are available (this shouldn't happen if the game board is set to the recommended size).
-            if (!monsterSlotAvailable()) break;
-
-            Monster monster;
-            TreasureGridElement gridElement;
+    public static TreasureHuntGame load (final File file, final Function<String, GuessStrategy> guessStrategies, final RandomSource random, @Nullable final PrintStream output) throws IOException {
+        return GameSave.read(file, guessStrategies, random, output);
+    }
 
-            // Keep looping until an element which doesn't hold a monster is found.
-            do {
-                gridElement = ((TreasureGridElement) this.treasureGrid.getElementAt(this.getRandomPositionInGrid()));
-                monster = gridElement.getMonster();
-            } while (monster != null);
+    /**
+     * Loads a game saved with save, giving each player the kind of guess strategy they were saved with. Console, random and computer
+     * players are saved as such, and players with any other strategy carry on at the console.
+     *
+     * @see #load(File, Function, RandomSource, PrintStream)
+     */
+    public static TreasureHuntGame load (final File file, final RandomSource random, @Nullable final PrintStream output) throws IOException {
+        return GameSave.read(file, null, random, output);
+    }
 
-            // Assign the monster to the grid element.
-            gridElement.setMonster(new Monster());
-        }
+    /**
+     * @return Whether the game can be saved, which it can't if its board is chunked.
+     */
+    public boolean canSave () {
+        return this.treasureGrid instanceof TreasureBoard;
     }
 
     /**
-     * Loops through all elements in the grid to check at least one has no treasure.
+     * Saves the game between rounds, so it can be carried on later with load.
      *
-     * @return True if a treasure slot is available.
+     * @param file The file to save to.
+     * @throws IOException If the file couldn't be written.
+     * @throws UnsupportedOperationException If the board is chunked, as only the seed and guess log are needed to recreate those.
+     */
+    public void save (final File file) throws IOException {
+        if (!this.canSave()) throw new UnsupportedOperationException(CANNOT_SAVE_MESSAGE);
+
+        GameSave.write(this, (TreasureBoard) this.treasureGrid, file);
+    }
+
+    /**
+     * Appends every guess from now on to the given log. For the log to replay the game, the game must be created with a random source
+     * seeded with the log's seed, and guesses must be logged from the start.
+     */
+    public void setGuessLog (@Nullable final GuessLog guessLog) {
+        this.guessLog = guessLog;
+    }
+
+    /**
+     * Sends the game's events to the given subscriber. Subscribe before the game starts to get all of its events.
+     */
+    public void subscribe (final GameEventSubscriber subscriber) {
+        // Only create the bus once something wants events, so games without subscribers don't pay for publishing.
+        if (this.events == null) this.events = new GameEventBus();
+        this.events.subscribe(subscriber);
+    }
+
+    /**
+     * Runs the subscribers over the events published since the last drain, so everything that's happened is printed before the next
+     * prompt.
+     */
+    private void drainEvents () {
+        if (this.events != null) this.events.drain();
+    }
+
+    /**
+     * Renders the board incrementally from now on, for output to a terminal that understands ANSI escape codes. The board stays at the
+     * top of the screen and only the elements that change are redrawn, while everything else printed scrolls by below it. Does nothing
+     * for headless games.
      */
-    private boolean treasureSlotAvailable () {
-        return this.treasureGrid.getGridElements().stream().anyMatch(gridElement -> ((TreasureGridElement) gridElement).getTreasureItem() == null);
+    public void setAnsiRendering (final boolean ansiRendering) {
+        this.ansiRendering = ansiRendering;
     }
 
     /**
-     * Loops through all elements in the grid to check at least one has no monster.
+     * Saves the game to the given file after each round.
      *
-     * @return True if a monster slot is available.
+     * @throws UnsupportedOperationException If the game can't be saved, as its board is chunked.
      */
-    private boolean monsterSlotAvailable () {
-        return this.treasureGrid.getGridElements().stream().anyMatch(gridElement -> ((TreasureGridElement) gridElement).getMonster() == null);
+    public void setCheckpointFile (@Nullable final File checkpointFile) {
+        if (checkpointFile != null && !this.canSave()) throw new UnsupportedOperationException(CANNOT_SAVE_MESSAGE);
+
+        this.checkpointFile = checkpointFile;
     }
 
     /**
-     * Gets a random position within the bounds of the grid.
+     * Estimates how much memory the board of a game of the given size takes up, for capping the total memory of many games.
      *
-     * @return The pair of integers making up the indexes of the random position.
+     * @param gridSize The width and height of the board.
+     * @return The estimated size of the board in bytes.
      */
-    private Pair<Integer, Integer> getRandomPositionInGrid () {
-        return new Pair<>(IntegerUtils.getRandomIntBetween(0, this.gridSize - 1), IntegerUtils.getRandomIntBetween(0, this.gridSize - 1));
+    public static long getBoardMemoryEstimate (final int gridSize) {
+        return gridSize >= CHUNKED_BOARD_SIZE ? ChunkedTreasureBoard.getMemoryEstimate(gridSize) : TreasureBoard.getMemoryEstimate(gridSize);
+    }
+
+    /**
+     * Populates the treasure map with a random number of weighted random treasure at random positions.
+     */
+    private void createTreasure (final TreasureBoard treasureBoard) {
+        final int treasureCount = this.random.nextIntBetween(this.gridSize * 2, this.gridSize * 5);
+        int placed = 0;
+
+        // Loops for a random number of times.
+        for (; placed < treasureCount; placed++) {
+            // Gets a random position without treasure in the grid.
+            final long position = treasureBoard.getRandomTreasureSlot(this.random);
+
+            // Stop creating treasure if no slots are available (this shouldn't happen if the game board is set to the recommended size).
+            if (position == Positions.NONE) break;
+
+            // Puts a random treasure item at the position.
+            treasureBoard.setTreasureItem(Positions.getX(position), Positions.getY(position), this.treasureRegistry.getRandomId(this.random));
+        }
+
+        if (this.metrics != null) this.metrics.recordTreasurePlacement(placed, treasureCount - placed);
+    }
+
+    /**
+     * Creates a random amount of monsters at random positions within the grid.
+     */
+    private void createMonsters () {
+        this.addMonsters(this.random.nextIntBetween(3, 5));
+    }
+
+    /**
+     * Adds the given number of monsters at random positions within the grid, or as many as there are elements without a monster for.
+     * Package-private so benchmarks can play with many more monsters than a game creates.
+     */
+    void addMonsters (final int monsterCount) {
+        for (int i = 0; i < monsterCount; i++) {
+            // Gets a random position without a monster in the grid.
+            final long position = this.treasureGrid.getRandomMonsterSlot(this.random);
+
+            // Stop creating monsters if no slots are available (this shouldn't happen if the game board is set to the recommended size).
+            if (position == Positions.NONE) break;
+
+            final Monster monster = new Monster(this.monsters.size(), this.random);
+            monster.setPosition(Positions.getX(position), Positions.getY(position));
+
+            // Assign the monster to the grid element, and register it.
+            this.treasureGrid.setMonster(Positions.getX(position), Positions.getY(position), monster);
+            this.monsters.add(monster);
+        }
+
+        this.monsterMoves = new long[this.monsters.size()];
     }
 
     /**
      * Main game loop.
      */
     public void gameLoop () {
-        System.out.println("\nWelcome to the treasure hunting game. You have " + this.guesses + " guesses to find as much treasure as possible.");
+        // The first incremental frame clears the screen, so draw it before anything is printed below the board.
+        if (this.ansiRendering && this.renderer != null) this.renderer.renderChanges();
+
+        if (this.output != null)
+            this.output.println("\nWelcome to the treasure hunting game. You have " + (this.guesses - this.round) + " guesses to find as much treasure as possible.");
+
+        if (this.events != null) this.events.gameStarted(this.round, this.guesses - this.round);
+
+        // Loop for the number of guesses the user gets, carrying on from the last round played if the game was loaded.
+        while (this.round < this.guesses) {
+            for (final Player player : this.players) {
+                this.drainEvents(); // Print what happened since the last prompt before prompting again.
+                this.takeGuess(player);
+            }
+
+            this.moveMonsters();
+            this.round++;
+
+            if (this.events != null) this.events.roundEnded(this.round, this.guesses - this.round);
+            this.drainEvents();
 
-        // Loop for the number of guesses the user gets.
-        for (int i = 0; i < this.guesses; i++) {
-            this.players.forEach(this::takeGuess);
-            System.out.println("\nThere are " + (this.guesses - i - 1) + " guesses left.");
-            this.getMonsterSlots().forEach(this::moveMonster);
+            if (this.checkpointFile != null) this.checkpoint();
         }
 
-        this.printResults(); // Print the results of the game.
+        this.endGame();
     }
 
     /**
-     * Randomly moves a monster at the given grid element.
+     * Publishes the end of the game, and drains the events so the subscribers, such as the console printing the results, are done with
+     * the game once it returns.
+     */
+    private void endGame () {
+        if (this.events == null) return;
+
+        // Make room for the end of the game, in case a real time game filled the ring.
+        this.events.drain();
+        this.events.gameEnded(this.round);
+        this.events.drain();
+    }
+
+    /**
+     * Plays the game in real time. Each player makes all of their guesses on their own thread, without waiting for the other players,
+     * while the monsters move on a tick of their own. Players guessing the same element at the same time can't both find its treasure,
+     * as the board hands each treasure item out once.
      *
-     * @param gridElement The grid element that currently holds the monster.
+     * Real time games can't be replayed, as the order guesses and ticks happen in isn't fixed, so they must be headless and can't be
+     * logged or checkpointed. Each player's guess strategy is only used from their own thread. Whichever thread publishes events
+     * drains them when no other thread is, so subscribers run on player and monster threads, one at a time.
+     *
+     * @param tickInterval The time between monster moves.
+     * @param unit The unit of the tick interval.
+     * @throws InterruptedException If interrupted while waiting for the players to finish.
      */
-    private void moveMonster (final GridElement gridElement) {
-        final TreasureGridElement treasureGridElement = ((TreasureGridElement) gridElement);
-        final Monster monster = treasureGridElement.getMonster();
+    public void realTimeLoop (final long tickInterval, final TimeUnit unit) throws InterruptedException {
+        if (this.output != null || this.guessLog != null || this.checkpointFile != null)
+            throw new IllegalStateException("Real time games must be headless, and can't be logged or checkpointed.");
+
+        // Random sources aren't thread-safe, so give the monster tick and each player their own.
+        final RandomSource monsterRandom = this.random.split();
+        final List<RandomSource> playerRandoms = new ArrayList<>(this.players.size());
+        for (int i = 0; i < this.players.size(); i++) playerRandoms.add(this.random.split());
+
+        final ScheduledExecutorService monsterExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> newDaemonThread(runnable, "treasure-hunt-monsters"));
+        final ExecutorService playerExecutor = Executors.newFixedThreadPool(this.players.size(), runnable -> newDaemonThread(runnable, "treasure-hunt-player"));
+
+        if (this.events != null) this.events.gameStarted(this.round, this.guesses - this.round);
+
+        try {
+            monsterExecutor.scheduleAtFixedRate(() -> {
+                this.moveMonsters(monsterRandom);
+                if (this.events != null) this.events.tryDrain();
+            }, tickInterval, tickInterval, unit);
+
+            final List<Future<?>> playerGuesses = new ArrayList<>(this.players.size());
+
+            for (int i = 0; i < this.players.size(); i++) {
+                final Player player = this.players.get(i);
+                final RandomSource playerRandom = playerRandoms.get(i);
+
+                playerGuesses.add(playerExecutor.submit(() -> {
+                    for (int guess = this.round; guess < this.guesses; guess++) {
+                        this.takeGuess(player, playerRandom);
+                        if (this.events != null) this.events.tryDrain();
+                    }
+                }));
+            }
 
-        // If there aren't any slots available for monsters, leave them where they are.
-        if (!monsterSlotAvailable()) return;
+            for (final Future<?> guesses : playerGuesses) {
+                try {
+                    guesses.get();
+                } catch (ExecutionException e) {
+                    // Pass on the player's failure, for example a disconnect, as if it happened on this thread.
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
 
-        Pair<Integer, Integer> newPosition;
+            this.round = this.guesses;
+        } finally {
+            playerExecutor.shutdownNow();
+            monsterExecutor.shutdownNow();
+            // Wait for a tick in progress, so the results include it.
+            monsterExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        }
 
-        do {
-            final int newX = gridElement.getPosition().getKey() + IntegerUtils.getRandomIntBetween(-monster.getStealth(), monster.getStealth());
-            final int newY = gridElement.getPosition().getValue() + IntegerUtils.getRandomIntBetween(-monster.getStealth(), monster.getStealth());
+        this.endGame();
+    }
 
-            newPosition = new Pair<>(newX >= this.treasureGrid.getGrid().size() ? this.treasureGrid.getGrid().size() - 1 : Math.max(newX, 0), newY >= this.treasureGrid.getGrid().get(0).size() ? this.treasureGrid.getGrid().get(0).size() - 1 : Math.max(newY, 0));
-        } while (((TreasureGridElement) this.treasureGrid.getElementAt(newPosition)).getMonster() != null);
+    private static Thread newDaemonThread (final Runnable runnable, final String name) {
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
 
-        treasureGridElement.setTreasureItemTaken(true); // Monster eats treasure.
-        treasureGridElement.clearMonster(); // Clear monster from old position.
-        ((TreasureGridElement) this.treasureGrid.getElementAt(newPosition)).setMonster(monster); // Add monster to new position.
+    private void checkpoint () {
+        try {
+            this.save(this.checkpointFile);
+        } catch (IOException | RuntimeException e) {
+            // Carry on without the checkpoint, the next round will try again. A checkpoint is never worth ending the game over.
+            System.err.println("Could not save game to " + this.checkpointFile + ": " + e.getMessage());
+        }
     }
 
     /**
-     * @return A list of grid elements containing monsters.
+     * Moves every monster as one batch. Each monster, in id order, claims a uniformly random element within its stealth of its current
+     * position. Elements held by a monster at the start of the round, or claimed by a monster earlier in the round, can't be claimed,
+     * so two monsters never end up in the same element and the outcome only depends on the random source. A monster with nowhere to
+     * go stays where it is. Once every monster has claimed its element they all move, eating the treasure they leave behind.
+     *
+     * Package-private so benchmarks can time a single round.
      */
-    private List<GridElement> getMonsterSlots () {
-        return this.treasureGrid.getGridElements().stream().filter(gridElement -> ((TreasureGridElement) gridElement).getMonster() != null).collect(Collectors.toList());
+    void moveMonsters () {
+        this.moveMonsters(this.random);
     }
 
-    private void takeGuess (final Player player) {
-        // If on multiplayer, print who's turn it is.
-        if (this.isMultiplayer()) System.out.println("\n" + player.getName() + "'s turn.");
+    private void moveMonsters (final RandomSource random) {
+        final int monsterCount = this.monsters.size();
 
-        this.treasureGrid.printGrid(); // Print the grid.
+        for (int i = 0; i < monsterCount; i++) {
+            final Monster monster = this.monsters.get(i);
+            final long newPosition = this.treasureGrid.getRandomMonsterSlot(Math.max(monster.getX() - monster.getStealth(), 0),
+                    Math.max(monster.getY() - monster.getStealth(), 0), Math.min(monster.getX() + monster.getStealth(), this.gridSize - 1),
+                    Math.min(monster.getY() + monster.getStealth(), this.gridSize - 1), random);
 
-        String guessPositionString;
-        Pair<Integer, Integer> guessPosition;
+            if (this.metrics != null) this.metrics.recordMonsterMove(newPosition != Positions.NONE);
 
-        // Get guess position until it is a valid position on the grid.
+            if (newPosition == Positions.NONE) {
+                this.monsterMoves[i] = Positions.NONE;
+                continue;
+            }
 
-        do {
-            guessPositionString = InputUtils.getInput("\nGuess a position (for example, A1 would be the first position). ").toUpperCase();
-            guessPosition = this.treasureGrid.getElementPosition(guessPositionString);
-        } while (guessPosition == null);
+            // Claim the new position, leaving the monster on its old position until every monster has claimed one.
+            this.treasureGrid.setMonster(Positions.getX(newPosition), Positions.getY(newPosition), monster);
+            this.monsterMoves[i] = newPosition;
+        }
 
-        final TreasureGridElement gridElement = (TreasureGridElement) this.treasureGrid.getElementAt(guessPosition);
-        final Monster monster = gridElement.getMonster();
+        for (int i = 0; i < monsterCount; i++) {
+            if (this.monsterMoves[i] == Positions.NONE) continue;
 
-        if (monster != null) {
-            final Map<ITreasureItem, Integer> treasureItemsTaken = new HashMap<>();
+            final Monster monster = this.monsters.get(i);
+            final int x = monster.getX();
+            final int y = monster.getY();
+
+            // Monster eats treasure.
+            if (this.treasureGrid.takeTreasureItem(x, y)) {
+                this.treasureEaten++;
+                if (this.metrics != null) this.metrics.recordTreasureEaten();
+                if (this.events != null) this.events.treasureEaten(this.round, monster, x, y, this.treasureGrid.getTreasureItem(x, y));
+            }
+            this.treasureGrid.clearMonster(x, y); // Clear monster from old position.
+            monster.setPosition(Positions.getX(this.monsterMoves[i]), Positions.getY(this.monsterMoves[i]));
+
+            if (this.events != null) this.events.monsterMoved(this.round, monster);
+        }
+    }
 
-            for (int i = 0; i < IntegerUtils.getRandomIntBetween(1, monster.getStealth()); i++) {
-                if (player.getFoundTreasure().size() == 0) break;
+    /**
+     * Takes a single guess from the given player. Package-private so benchmarks can time a single guess.
+     *
+     * @param player The player guessing.
+     */
+    void takeGuess (final Player player) {
+        this.takeGuess(player, this.random);
+    }
 
-                // Retrieve random piece of treasure.
-                final ITreasureItem treasureItem = player.getFoundTreasure().get(IntegerUtils.getRandomIntBetween(0, player.getFoundTreasure().size() - 1));
+    private void takeGuess (final Player player, final RandomSource random) {
+        if (this.metrics == null) {
+            this.handleGuess(player, random);
+            return;
+        }
+
+        // Time how long the game takes with the guess, not how long the player takes to make it.
+        final long startTime = System.nanoTime();
+        final long guessTime = this.handleGuess(player, random);
+        this.metrics.recordGuess(System.nanoTime() - startTime - guessTime);
+    }
 
-                // Steal it from player and add it to treasure taken list.
-                player.getFoundTreasure().remove(treasureItem);
-                if (treasureItemsTaken.containsKey(treasureItem)) treasureItemsTaken.put(treasureItem, treasureItemsTaken.get(treasureItem) + 1);
-                else treasureItemsTaken.put(treasureItem, 1);
+    /**
+     * Takes and resolves a single guess from the given player.
+     *
+     * @param player The player guessing.
+     * @param random The random source for what happens to the player.
+     * @return The time the player took to make their guess in nanoseconds, or 0 if metrics are disabled.
+     */
+    private long handleGuess (final Player player, final RandomSource random) {
+        if (this.output != null) {
+            // If on multiplayer, print who's turn it is.
+            if (this.isMultiplayer()) this.output.println("\n" + player.getName() + "'s turn.");
+
+            // Print the grid.
+            if (this.ansiRendering) this.renderer.renderChanges();
+            else this.renderer.render();
+        }
+
+        final long guessStartTime = this.metrics == null ? 0 : System.nanoTime();
+        final long guessPosition = player.getGuessStrategy().getGuess(this.treasureGrid, player);
+        final long guessTime = this.metrics == null ? 0 : System.nanoTime() - guessStartTime;
+        final int guessX = Positions.getX(guessPosition);
+        final int guessY = Positions.getY(guessPosition);
+
+        if (guessX < 0 || guessX >= this.gridSize || guessY < 0 || guessY >= this.gridSize)
+            throw new IllegalStateException("Guess strategy for " + player.getName() + " guessed " + guessX + ", " + guessY + ", which is off the board.");
+
+        if (this.guessLog != null) this.guessLog.append(guessX, guessY);
+
+        // Keep the last guess in view on boards too large to render whole.
+        if (this.renderer != null) this.renderer.centreOn(guessX, guessY);
+
+        final Monster monster = this.treasureGrid.getMonster(guessX, guessY);
+
+        if (monster != null) {
+            // Only keep track of what was taken if it will be published.
+            final Map<ITreasureItem, Integer> treasureItemsTaken = this.events == null ? null : new HashMap<>();
+            final int stealCount = random.nextIntBetween(1, monster.getStealth());
+            int stolen = 0;
+
+            for (int i = 0; i < stealCount; i++) {
+                // Steal random piece of treasure from player.
+                final ITreasureItem treasureItem = player.stealRandomTreasure(this.treasureRegistry, random);
+                if (treasureItem == null) break;
+
+                // Add it to treasure taken list.
+                if (treasureItemsTaken != null) treasureItemsTaken.merge(treasureItem, 1, Integer::sum);
+                stolen++;
             }
 
-            System.out.println("\nYou landed on a monster! " + (treasureItemsTaken.size() > 0 ? "They took the following items:" : "They don't take anything from beggars."));
-            treasureItemsTaken.forEach((treasureItem, count) -> System.out.println("- " + count + " " + treasureItem.getName() + (count > 1 ? "s" : "")));
+            if (stolen > 0) this.itemsStolen.addAndGet(stolen);
+
+            if (this.metrics != null && stolen > 0) this.metrics.recordItemsStolen(stolen);
+
+            if (treasureItemsTaken != null) {
+                this.events.monsterEncountered(this.round, player, monster, guessX, guessY, stolen);
+                treasureItemsTaken.forEach((treasureItem, count) -> this.events.itemsStolen(this.round, player, monster, treasureItem, count));
+            }
         }
 
-        if (gridElement.isTreasureItemTaken()) {
-            System.out.println("\nNo treasure at this position.");
+        // Take the treasure in one step, so if another player guesses the same element at the same time only one of them finds it.
+        if (!this.treasureGrid.takeTreasureItem(guessX, guessY)) {
+            if (this.events != null) this.events.noTreasureFound(this.round, player, guessX, guessY);
 
             // Sets the guesses position to [O] to show they have already searched there.
-            this.treasureGrid.getGrid().get(guessPosition.getKey()).get(guessPosition.getValue()).setDisplayText("[O]");
+            this.treasureGrid.setDisplayText(guessX, guessY, 'O');
 
-            return;
+            return guessTime;
         }
 
-        gridElement.setTreasureItemTaken(true);
-
-        final ITreasureItem treasureItem = gridElement.getTreasureItem();
+        final ITreasureItem treasureItem = this.treasureGrid.getTreasureItem(guessX, guessY);
         // Sets the guess position to [X] to show that they found treasure there.
-        this.treasureGrid.getGrid().get(guessPosition.getKey()).get(guessPosition.getValue()).setDisplayText("[X]");
-        // Add the treasure item to the foundTreasure list.
-        player.getFoundTreasure().add(treasureItem);
+        this.treasureGrid.setDisplayText(guessX, guessY, 'X');
+        // Add the treasure item to the player's found treasure.
+        player.addTreasure(treasureItem);
 
-        System.out.println("\nYou found a " + treasureItem.getName() + " worth " + treasureItem.getValue() + " gold coins.");
+        if (this.events != null) this.events.treasureFound(this.round, player, guessX, guessY, treasureItem);
+
+        return guessTime;
     }
 
     /**
-     * Prints the results of the game.
+     * Prints the results for a specific player. Package-private so benchmarks can time scoring; only call it when the game has an
+     * output stream.
+     *
+     * @param player The player object.
      */
-    private void printResults() {
-        this.fillOutGrid(); // Fills grid in with treasure information.
-        this.treasureGrid.printGrid(); // Prints the filled out grid.
+    void printPlayerResults(final Player player) {
+        this.console.printPlayerResults(player);
+    }
 
-        this.players.forEach(this::printPlayerResults); // Print player results for each player.
+    public List<Player> getPlayers() {
+        return this.players;
     }
 
     /**
-     * Prints the results for a specific player.
-     *
-     * @param player The player object.
+     * @return The heatmap of the treasure left on the board, or null if the board is chunked, as it would mean generating every chunk.
+     * @see ITreasureBoard#getHeatmap()
      */
-    private void printPlayerResults(final Player player) {
-        int goldCoinValue = 0;
-        final Map<ITreasureItem, Long> treasureCounts = new HashMap<>();
-
-        // Calculates how much value they got from all their treasure.
-        for (ITreasureItem treasureItem : player.getFoundTreasure())
-            goldCoinValue += treasureItem.getValue();
-
-        // Puts their found treasure into a map of each item and how many they got.
-        for (final ITreasureItem treasureItem : TreasureItems.TREASURE_ITEMS) {
-            final long count = player.getFoundTreasure().stream().filter(treasureItem::equals).count();
-            if (count > 0) treasureCounts.put(treasureItem, count);
-        }
+    @Nullable
+    public TreasureHeatmap getHeatmap() {
+        return this.treasureGrid.getHeatmap();
+    }
 
-        System.out.println("\nOverall, " + (this.isMultiplayer() ? player.getName() : "you") + " got " + goldCoinValue + " gold coins worth of treasure. " + (player.getFoundTreasure().size() > 0 ? (this.isMultiplayer() ? "They" : "You") + " found the following items:" : ""));
+    ITreasureBoard getTreasureGrid() {
+        return this.treasureGrid;
+    }
 
-        // Displays each treasure item they found, how many they got, and what it's worth.
-        treasureCounts.forEach((treasureItem, count) -> System.out.println("- " + count + " " + treasureItem.getName() + (count > 1 ? "s" : "") + " worth " + treasureItem.getValue() + " gold coins each, and " + (treasureItem.getValue() * count) + " in total."));
+    TreasureRegistry getTreasureRegistry() {
+        return this.treasureRegistry;
     }
 
-    /**
-     * Fills grid with which spaces had treasure and were empty didn't. Executed at the end of the game.
-     */
-    private void fillOutGrid() {
-        for (int i = 0; i < this.treasureGrid.getGrid().size(); i++)
-            for (int j = 0; j < this.treasureGrid.getGrid().get(i).size(); j++) {
-                final TreasureGridElement gridElement = (TreasureGridElement) this.treasureGrid.getGrid().get(i).get(j);
-                this.treasureGrid.getGrid().get(i).get(j).setDisplayText("[" + (gridElement.getTreasureItem() != null ? 'X' : 'O') + "]");
-            }
+    List<Monster> getMonsters() {
+        return this.monsters;
+    }
+
+    int getGuesses() {
+        return this.guesses;
+    }
+
+    int getRound() {
+        return this.round;
+    }
+
+    public int getTreasureEaten() {
+        return this.treasureEaten;
+    }
+
+    public int getItemsStolen() {
+        return this.itemsStolen.get();
     }
 
     /**
@@ -0,0 +1,81 @@
+package com.harleyoconnor.treasurehunt.event;
+
+import com.harleyoconnor.treasurehunt.grid.BoardRenderer;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Prints what happens in a game for the players to read, and the results once it's over.
+ *
+ * @author Harley O'Connor
+ */
+public final class ConsoleSubscriber implements GameEventSubscriber {
+
+    private final PrintStream output;
+    /** Renders the revealed board at the end of the game. */
+    private final BoardRenderer renderer;
+    /** Registry of the game, which the players' treasure item ids are looked up in. */
+    private final TreasureRegistry treasureRegistry;
+    private final List<Player> players;
+
+    public ConsoleSubscriber (final PrintStream output, final BoardRenderer renderer, final TreasureRegistry treasureRegistry, final List<Player> players) {
+        this.output = output;
+        this.renderer = renderer;
+        this.treasureRegistry = treasureRegistry;
+        this.players = players;
+    }
+
+    @Override
+    public void onEvent (final GameEvent event, final boolean endOfBatch) {
+        switch (event.getType()) {
+            case TREASURE_FOUND:
+                final ITreasureItem treasureItem = event.getTreasureItem();
+                this.output.println("\nYou found a " + treasureItem.getName() + " worth " + treasureItem.getValue() + " gold coins.");
+                break;
+            case NO_TREASURE_FOUND:
+                this.output.println("\nNo treasure at this position.");
+                break;
+            case MONSTER_ENCOUNTERED:
+                this.output.println("\nYou landed on a monster! " + (event.getCount() > 0 ? "They took the following items:" : "They don't take anything from beggars."));
+                break;
+            case ITEMS_STOLEN:
+                this.output.println("- " + event.getCount() + " " + event.getTreasureItem().getName() + (event.getCount() > 1 ? "s" : ""));
+                break;
+            case ROUND_ENDED:
+                this.output.println("\nThere are " + event.getCount() + " guesses left.");
+                break;
+            case GAME_ENDED:
+                this.renderer.renderRevealed(); // Prints the grid filled in with treasure information.
+                this.players.forEach(this::printPlayerResults); // Print player results for each player.
+                break;
+            default:
+                break;
+        }
+
+        if (endOfBatch) this.output.flush();
+    }
+
+    /**
+     * Prints the results for a specific player.
+     *
+     * @param player The player object.
+     */
+    public void printPlayerResults (final Player player) {
+        // The player keeps a running total of how much value they got from all their treasure.
+        final long goldCoinValue = player.getGold();
+
+        this.output.println("\nOverall, " + (this.isMultiplayer() ? player.getName() : "you") + " got " + goldCoinValue + " gold coins worth of treasure. " + (player.getTreasureCount() > 0 ? (this.isMultiplayer() ? "They" : "You") + " found the following items:" : ""));
+
+        // Displays each treasure item they found, how many they got, and what it's worth.
+        player.forEachTreasure(this.treasureRegistry, (treasureItem, count) -> this.output.println("- " + count + " " + treasureItem.getName() + (count > 1 ? "s" : "") + " worth " + treasureItem.getValue() + " gold coins each, and " + (treasureItem.getValue() * count) + " in total."));
+    }
+
+    private boolean isMultiplayer () {
+        return this.players.size() > 1;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.harleyoconnor.treasurehunt.event;
+
+import com.harleyoconnor.treasurehunt.living.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps running totals of the events it receives, in memory. One aggregator can subscribe to the buses of many games, as long as they
+ * are drained on the same thread. Read the totals from the draining thread, for example once a game's loop has returned.
+ *
+ * @author Harley O'Connor
+ */
+public final class EventAggregator implements GameEventSubscriber {
+
+    private final long[] counts = new long[GameEvent.Type.values().length];
+    private long treasureValueFound;
+    private long treasureValueEaten;
+    private long itemsStolen;
+    private long treasureValueStolen;
+    /** Value of the treasure each player has found, without taking away what was stolen from them. */
+    private final Map<Player, long[]> playerValueFound = new HashMap<>();
+
+    @Override
+    public void onEvent (final GameEvent event, final boolean endOfBatch) {
+        this.counts[event.getType().ordinal()]++;
+
+        switch (event.getType()) {
+            case TREASURE_FOUND:
+                this.treasureValueFound += event.getTreasureItem().getValue();
+                this.playerValueFound.computeIfAbsent(event.getPlayer(), player -> new long[1])[0] += event.getTreasureItem().getValue();
+                break;
+            case TREASURE_EATEN:
+                this.treasureValueEaten += event.getTreasureItem().getValue();
+                break;
+            case ITEMS_STOLEN:
+                this.itemsStolen += event.getCount();
+                this.treasureValueStolen += event.getTreasureItem().getValue() * event.getCount();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return The number of events of the given type received.
+     */
+    public long getCount (final GameEvent.Type type) {
+        return this.counts[type.ordinal()];
+    }
+
+    public long getTreasureValueFound () {
+        return this.treasureValueFound;
+    }
+
+    public long getTreasureValueEaten () {
+        return this.treasureValueEaten;
+    }
+
+    public long getItemsStolen () {
+        return this.itemsStolen;
+    }
+
+    public long getTreasureValueStolen () {
+        return this.treasureValueStolen;
+    }
+
+    /**
+     * @return The value of the treasure the given player found, without taking away what was stolen from them.
+     */
+    public long getValueFound (final Player player) {
+        final long[] valueFound = this.playerValueFound.get(player);
+        return valueFound == null ? 0 : valueFound[0];
+    }
+
+    @Override
+    public String toString () {
+        final StringBuilder builder = new StringBuilder();
+
+        for (final GameEvent.Type type : GameEvent.Type.values())
+            builder.append(type).append(": ").append(this.getCount(type)).append('\n');
+
+        return builder.append("Treasure value found: ").append(this.treasureValueFound).append(", eaten: ").append(this.treasureValueEaten)
+                .append(", stolen: ").append(this.treasureValueStolen).append(" (").append(this.itemsStolen).append(" items).").toString();
+    }
+
+}
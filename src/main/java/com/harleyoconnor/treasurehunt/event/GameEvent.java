@@ -0,0 +1,136 @@
+package com.harleyoconnor.treasurehunt.event;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+
+import javax.annotation.Nullable;
+
+/**
+ * Something that happened in a game. Events are slots in a GameEventBus's ring buffer, which are filled in again for later events, so
+ * an event is only valid during the subscriber call it's passed to. Copy out anything that needs to be kept.
+ *
+ * Which fields are set depends on the type, see each type for its fields. Fields that aren't set are null or 0.
+ *
+ * @author Harley O'Connor
+ */
+public final class GameEvent {
+
+    public enum Type {
+        /** The game is starting. Count is the number of guesses each player has left. */
+        GAME_STARTED,
+        /** Player found the treasure item at x, y. */
+        TREASURE_FOUND,
+        /** Player guessed x, y but there was no treasure left there. */
+        NO_TREASURE_FOUND,
+        /** Player landed on monster at x, y, who stole count items from them. Followed by an ITEMS_STOLEN for each kind of item taken. */
+        MONSTER_ENCOUNTERED,
+        /** Monster stole count of the treasure item from player. */
+        ITEMS_STOLEN,
+        /** Monster ate the treasure item at x, y as it moved off. */
+        TREASURE_EATEN,
+        /** Monster moved to x, y. */
+        MONSTER_MOVED,
+        /** Every player has guessed and the monsters have moved. Round is the number of rounds played, and count the guesses left. */
+        ROUND_ENDED,
+        /** The game is over. */
+        GAME_ENDED
+    }
+
+    private Type type;
+    private long sequence;
+    private int round;
+    @Nullable
+    private Player player;
+    @Nullable
+    private Monster monster;
+    @Nullable
+    private ITreasureItem treasureItem;
+    private int x;
+    private int y;
+    private int count;
+
+    GameEvent() {}
+
+    /**
+     * Resets the event for a new publication, so no fields are left over from the last event in this slot.
+     */
+    void reset (final Type type, final long sequence, final int round) {
+        this.type = type;
+        this.sequence = sequence;
+        this.round = round;
+        this.player = null;
+        this.monster = null;
+        this.treasureItem = null;
+        this.x = 0;
+        this.y = 0;
+        this.count = 0;
+    }
+
+    void setPlayer (final Player player) {
+        this.player = player;
+    }
+
+    void setMonster (final Monster monster) {
+        this.monster = monster;
+    }
+
+    void setTreasureItem (final ITreasureItem treasureItem) {
+        this.treasureItem = treasureItem;
+    }
+
+    void setPosition (final int x, final int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    void setCount (final int count) {
+        this.count = count;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The position of the event in its bus, counting up from 0.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * @return The number of rounds played when the event happened.
+     */
+    public int getRound() {
+        return this.round;
+    }
+
+    @Nullable
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    @Nullable
+    public Monster getMonster() {
+        return this.monster;
+    }
+
+    @Nullable
+    public ITreasureItem getTreasureItem() {
+        return this.treasureItem;
+    }
+
+    public int getX() {
+        return this.x;
+    }
+
+    public int getY() {
+        return this.y;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.harleyoconnor.treasurehunt.event;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carries a game's events to its subscribers through a bounded ring buffer of reused events, so publishing doesn't allocate.
+ *
+ * Publishing never blocks or waits on subscribers: an event is written into the next free slot of the ring, and if every slot still
+ * holds an event the subscribers haven't seen, the new event is dropped and counted instead. Publishing is safe from any number of
+ * threads at once.
+ *
+ * Subscribers are run by drain, on the thread calling it, over every event published since the last drain, in one batch per
+ * subscriber. Games drain before each prompt and at the end of each round, so the ring only needs to hold the events of one turn or one
+ * round of monster moves, and console output comes out in order with the prompts.
+ *
+ * @author Harley O'Connor
+ */
+public final class GameEventBus {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final GameEvent[] events;
+    private final int mask;
+    /** Sequence each slot was last published with, so drain can tell written slots from ones still being filled in. */
+    private final AtomicLongArray published;
+    /** Sequence of the next event to be published. */
+    private final AtomicLong nextSequence = new AtomicLong();
+    /** Sequence of the next event to be drained. Every slot before it is free to be published to again. */
+    private volatile long drainedSequence;
+    private final LongAdder dropped = new LongAdder();
+
+    private final List<GameEventSubscriber> subscribers = new ArrayList<>();
+    /** Held while draining, so subscribers only run on one thread at a time. */
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    public GameEventBus () {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of events that can be waiting to be drained, rounded up to a power of two.
+     */
+    public GameEventBus (final int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Capacity must be between 1 and 2^30, but was " + capacity + ".");
+
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.events = new GameEvent[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            this.events[i] = new GameEvent();
+            // No sequence maps to a slot below its index, so this marks every slot as unwritten.
+            this.published.set(i, -1);
+        }
+    }
+
+    /**
+     * Adds a subscriber, which receives every event published from its next drain on.
+     */
+    public void subscribe (final GameEventSubscriber subscriber) {
+        this.drainLock.lock();
+
+        try {
+            this.subscribers.add(subscriber);
+        } finally {
+            this.drainLock.unlock();
+        }
+    }
+
+    /**
+     * Runs every subscriber over the events published since the last drain. If another thread is draining, waits for it to finish
+     * first, so once this returns every event published before it was called has been seen.
+     */
+    public void drain () {
+        this.drainLock.lock();
+
+        try {
+            this.drainLocked();
+        } finally {
+            this.drainLock.unlock();
+        }
+    }
+
+    /**
+     * Drains the bus unless another thread is already draining it, in which case returns straight away. Lets threads publishing many
+     * events help keep the ring from filling up, without ever waiting on each other.
+     */
+    public void tryDrain () {
+        if (!this.drainLock.tryLock()) return;
+
+        try {
+            this.drainLocked();
+        } finally {
+            this.drainLock.unlock();
+        }
+    }
+
+    private void drainLocked () {
+        final long start = this.drainedSequence;
+        long end = start;
+
+        // Stop at the first slot still being filled in, later events are drained next time.
+        while (this.published.get((int) end & this.mask) == end) end++;
+
+        if (end == start) return;
+
+        for (final GameEventSubscriber subscriber : this.subscribers) {
+            try {
+                for (long sequence = start; sequence < end; sequence++)
+                    subscriber.onEvent(this.events[(int) sequence & this.mask], sequence == end - 1);
+            } catch (RuntimeException e) {
+                // Don't let one broken subscriber stop the others, or the game, from getting events.
+                System.err.println("Game event subscriber " + subscriber + " failed: " + e);
+            }
+        }
+
+        this.drainedSequence = end;
+    }
+
+    /**
+     * @return The number of events dropped because the ring was full.
+     */
+    public long getDroppedCount () {
+        return this.dropped.sum();
+    }
+
+    public void gameStarted (final int round, final int guessesLeft) {
+        final GameEvent event = this.claim(GameEvent.Type.GAME_STARTED, round);
+        if (event == null) return;
+
+        event.setCount(guessesLeft);
+        this.publish(event);
+    }
+
+    public void treasureFound (final int round, final Player player, final int x, final int y, final ITreasureItem treasureItem) {
+        final GameEvent event = this.claim(GameEvent.Type.TREASURE_FOUND, round);
+        if (event == null) return;
+
+        event.setPlayer(player);
+        event.setPosition(x, y);
+        event.setTreasureItem(treasureItem);
+        this.publish(event);
+    }
+
+    public void noTreasureFound (final int round, final Player player, final int x, final int y) {
+        final GameEvent event = this.claim(GameEvent.Type.NO_TREASURE_FOUND, round);
+        if (event == null) return;
+
+        event.setPlayer(player);
+        event.setPosition(x, y);
+        this.publish(event);
+    }
+
+    public void monsterEncountered (final int round, final Player player, final Monster monster, final int x, final int y, final int itemsStolen) {
+        final GameEvent event = this.claim(GameEvent.Type.MONSTER_ENCOUNTERED, round);
+        if (event == null) return;
+
+        event.setPlayer(player);
+        event.setMonster(monster);
+        event.setPosition(x, y);
+        event.setCount(itemsStolen);
+        this.publish(event);
+    }
+
+    public void itemsStolen (final int round, final Player player, final Monster monster, final ITreasureItem treasureItem, final int count) {
+        final GameEvent event = this.claim(GameEvent.Type.ITEMS_STOLEN, round);
+        if (event == null) return;
+
+        event.setPlayer(player);
+        event.setMonster(monster);
+        event.setTreasureItem(treasureItem);
+        event.setCount(count);
+        this.publish(event);
+    }
+
+    public void treasureEaten (final int round, final Monster monster, final int x, final int y, final ITreasureItem treasureItem) {
+        final GameEvent event = this.claim(GameEvent.Type.TREASURE_EATEN, round);
+        if (event == null) return;
+
+        event.setMonster(monster);
+        event.setPosition(x, y);
+        event.setTreasureItem(treasureItem);
+        this.publish(event);
+    }
+
+    public void monsterMoved (final int round, final Monster monster) {
+        final GameEvent event = this.claim(GameEvent.Type.MONSTER_MOVED, round);
+        if (event == null) return;
+
+        event.setMonster(monster);
+        event.setPosition(monster.getX(), monster.getY());
+        this.publish(event);
+    }
+
+    public void roundEnded (final int round, final int guessesLeft) {
+        final GameEvent event = this.claim(GameEvent.Type.ROUND_ENDED, round);
+        if (event == null) return;
+
+        event.setCount(guessesLeft);
+        this.publish(event);
+    }
+
+    public void gameEnded (final int round) {
+        final GameEvent event = this.claim(GameEvent.Type.GAME_ENDED, round);
+        if (event != null) this.publish(event);
+    }
+
+    /**
+     * Claims the next slot of the ring for an event.
+     *
+     * @return The reset event to fill in and publish, or null if the ring is full and the event was dropped.
+     */
+    @Nullable
+    private GameEvent claim (final GameEvent.Type type, final int round) {
+        long sequence;
+
+        do {
+            sequence = this.nextSequence.get();
+
+            if (sequence - this.drainedSequence >= this.events.length) {
+                this.dropped.increment();
+                return null;
+            }
+        } while (!this.nextSequence.compareAndSet(sequence, sequence + 1));
+
+        final GameEvent event = this.events[(int) sequence & this.mask];
+        event.reset(type, sequence, round);
+        return event;
+    }
+
+    private void publish (final GameEvent event) {
+        // Written after the event's fields, so drain sees them once it sees the sequence.
+        this.published.set((int) event.getSequence() & this.mask, event.getSequence());
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.harleyoconnor.treasurehunt.event;
+
+/**
+ * Receives the events of a game from a GameEventBus. Subscribers are called in batches, one subscriber at a time, so they don't need
+ * to be thread-safe themselves.
+ *
+ * @author Harley O'Connor
+ */
+@FunctionalInterface
+public interface GameEventSubscriber {
+
+    /**
+     * @param event The event. Only valid until this call returns, as its slot is reused.
+     * @param endOfBatch True if this is the last event of the batch, so anything buffered can be flushed.
+     */
+    void onEvent(GameEvent event, boolean endOfBatch);
+
+}
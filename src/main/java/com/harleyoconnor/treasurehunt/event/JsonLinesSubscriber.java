@@ -0,0 +1,97 @@
+package com.harleyoconnor.treasurehunt.event;
+
+import org.json.simple.JSONValue;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes each event as a line of JSON, for example {"seq":12,"type":"TREASURE_FOUND","round":3,"player":"Harley","x":4,"y":7,
+ * "item":"Ruby","value":50}. Only the fields set for the event's type are written. Lines are built in a reused buffer and the writer is
+ * flushed once per batch.
+ *
+ * @author Harley O'Connor
+ */
+public final class JsonLinesSubscriber implements GameEventSubscriber, Closeable {
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(128);
+
+    public JsonLinesSubscriber (final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a subscriber appending to the given file, so the events of many games can be collected in one file.
+     */
+    public static JsonLinesSubscriber open (final File file) throws IOException {
+        final Path path = file.toPath().toAbsolutePath();
+        Files.createDirectories(path.getParent());
+
+        final BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new JsonLinesSubscriber(writer);
+    }
+
+    /**
+     * @throws UncheckedIOException If the event couldn't be written.
+     */
+    @Override
+    public void onEvent (final GameEvent event, final boolean endOfBatch) {
+        final StringBuilder line = this.line;
+        line.setLength(0);
+        line.append("{\"seq\":").append(event.getSequence()).append(",\"type\":\"").append(event.getType()).append("\",\"round\":").append(event.getRound());
+
+        if (event.getPlayer() != null) line.append(",\"player\":\"").append(JSONValue.escape(event.getPlayer().getName())).append('"');
+        if (event.getMonster() != null) line.append(",\"monster\":").append(event.getMonster().getId());
+
+        switch (event.getType()) {
+            case TREASURE_FOUND:
+            case NO_TREASURE_FOUND:
+            case MONSTER_ENCOUNTERED:
+            case TREASURE_EATEN:
+            case MONSTER_MOVED:
+                line.append(",\"x\":").append(event.getX()).append(",\"y\":").append(event.getY());
+                break;
+            default:
+                break;
+        }
+
+        if (event.getTreasureItem() != null)
+            line.append(",\"item\":\"").append(JSONValue.escape(event.getTreasureItem().getName())).append("\",\"value\":").append(event.getTreasureItem().getValue());
+
+        switch (event.getType()) {
+            case GAME_STARTED:
+            case MONSTER_ENCOUNTERED:
+            case ITEMS_STOLEN:
+            case ROUND_ENDED:
+                line.append(",\"count\":").append(event.getCount());
+                break;
+            default:
+                break;
+        }
+
+        line.append("}\n");
+
+        try {
+            this.writer.append(line);
+            if (endOfBatch) this.writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write game event.", e);
+        }
+    }
+
+    @Override
+    public void close () throws IOException {
+        this.writer.close();
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Renders a board as text straight from its state into a reusable buffer, which is flushed to a channel in a single write.
+ *
+ * Frames look like this, with row numbers right aligned and columns lettered like a spreadsheet (after Z comes AA):
+ * <pre>
+ *    A  B  C
+ * 1 [ ][X][ ]
+ * 2 [O][ ][ ]
+ * </pre>
+ *
+ * Boards wider than MAX_VIEWPORT_SIZE are rendered through a square viewport of that size, which can be moved with centreOn, so the
+ * memory and time a frame takes are bounded however large the board is.
+ *
+ * Besides full frames, the renderer can write only the elements that changed since the last frame using ANSI cursor movement, for
+ * terminals that support it. The board is then kept at the top of the screen, and anything else printed scrolls by below it.
+ *
+ * @author Harley O'Connor
+ */
+public final class BoardRenderer {
+
+    /** The most elements rendered along each side of the board. */
+    public static final int MAX_VIEWPORT_SIZE = 256;
+
+    private static final byte ESCAPE = 0x1B;
+
+    private final ITreasureBoard board;
+    private final WritableByteChannel channel;
+    private final int rowLabelWidth;
+    private final int viewportSize;
+
+    /** Indexes of the element in the top left of the viewport. */
+    private int viewportX;
+    private int viewportY;
+
+    private byte[] buffer;
+    private int position;
+
+    /**
+     * Character shown in each element of the viewport in the last incremental frame, indexed by y * viewport size + x, or null if the
+     * next incremental frame must redraw the whole screen.
+     */
+    @Nullable
+    private char[] lastFrame;
+    /** Whether the terminal's scrolling region has been set to the lines below the board, by an incremental frame. */
+    private boolean scrollRegionSet;
+
+    public BoardRenderer (final ITreasureBoard board, final WritableByteChannel channel) {
+        this.board = board;
+        this.channel = channel;
+        this.rowLabelWidth = stringSize(board.getSize());
+        this.viewportSize = Math.min(board.getSize(), MAX_VIEWPORT_SIZE);
+        this.buffer = new byte[getFrameSize(this.rowLabelWidth, this.viewportSize)];
+    }
+
+    /**
+     * @return The number of bytes in a full frame, not counting column labels longer than three letters.
+     */
+    private static int getFrameSize (final int rowLabelWidth, final int viewportSize) {
+        return (rowLabelWidth + 2 + viewportSize * 3) * (viewportSize + 1);
+    }
+
+    /**
+     * Estimates how much memory a renderer for a board of the given size takes up, for capping the total memory of many games.
+     *
+     * @param size The width and height of the board.
+     * @return The estimated size of the renderer's buffer and last frame in bytes.
+     */
+    public static long getMemoryEstimate (final int size) {
+        final int viewportSize = Math.min(size, MAX_VIEWPORT_SIZE);
+        return getFrameSize(stringSize(size), viewportSize) + (long) viewportSize * viewportSize * Character.BYTES;
+    }
+
+    /**
+     * Moves the viewport so the given element is as close to its centre as the edges of the board allow. Does nothing on boards that
+     * fit in the viewport.
+     */
+    public void centreOn (final int x, final int y) {
+        final int maxPosition = this.board.getSize() - this.viewportSize;
+        final int viewportX = Math.max(0, Math.min(x - this.viewportSize / 2, maxPosition));
+        final int viewportY = Math.max(0, Math.min(y - this.viewportSize / 2, maxPosition));
+        if (viewportX == this.viewportX && viewportY == this.viewportY) return;
+
+        this.viewportX = viewportX;
+        this.viewportY = viewportY;
+        // The labels have changed too, so the next incremental frame must start again.
+        this.lastFrame = null;
+    }
+
+    /**
+     * Renders the whole viewport as players see it.
+     */
+    public void render () {
+        // The frame isn't at the top of the screen, so the next incremental frame must start again.
+        this.lastFrame = null;
+        this.writeFrame(false, null);
+        this.flush();
+    }
+
+    /**
+     * Renders the whole viewport showing which elements had treasure (X) and which didn't (O). Used at the end of the game. Elements of
+     * boards that generate themselves which nobody looked at show '?', so revealing the board doesn't generate it all.
+     */
+    public void renderRevealed () {
+        this.lastFrame = null;
+
+        // Let the revealed board scroll with everything else.
+        if (this.scrollRegionSet) {
+            this.ensureCapacity(7);
+            this.putByte(ESCAPE).putByte('7').putByte(ESCAPE).putAscii("[r").putByte(ESCAPE).putByte('8');
+            this.scrollRegionSet = false;
+        }
+
+        this.writeFrame(true, null);
+        this.flush();
+    }
+
+    /**
+     * Renders only the elements whose character changed since the last frame, by moving the cursor to each of them and back. The first
+     * call, and the first after the viewport moves, clears the screen, renders the whole viewport at the top, and sets the terminal's
+     * scrolling region to the lines below it, so whatever is printed between frames scrolls by without moving the board. The cursor is
+     * left on the line after where it was, or below the board after a whole frame, so what's printed next (such as a prompt a client
+     * reads line by line) starts on its own line.
+     */
+    public void renderChanges () {
+        final int size = this.viewportSize;
+
+        if (this.lastFrame == null) {
+            // Clear the screen and move to the top left before the first frame.
+            this.ensureCapacity(7);
+            this.putByte(ESCAPE).putAscii("[2J").putByte(ESCAPE).putAscii("[H");
+
+            this.lastFrame = new char[size * size];
+            this.writeFrame(false, this.lastFrame);
+
+            // Setting the scrolling region moves the cursor to the top left, so move it back below the board.
+            this.ensureCapacity(32);
+            this.putByte(ESCAPE).putByte('[').putNumber(size + 2).putAscii(";r");
+            this.putByte(ESCAPE).putByte('[').putNumber(size + 2).putAscii(";1H").putByte('\n');
+            this.scrollRegionSet = true;
+            this.flush();
+            return;
+        }
+
+        // Save the cursor, so printing carries on where it left off once the board is updated.
+        this.ensureCapacity(2);
+        this.putByte(ESCAPE).putByte('7');
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                final char displayText = this.board.getDisplayText(this.viewportX + x, this.viewportY + y);
+                if (this.lastFrame[y * size + x] == displayText) continue;
+
+                this.lastFrame[y * size + x] = displayText;
+
+                // Move to the element's character, which is inside its brackets. Rows and columns start at 1.
+                this.ensureCapacity(32);
+                this.putByte(ESCAPE).putByte('[').putNumber(y + 2).putByte(';').putNumber(this.rowLabelWidth + 3 + x * 3)
+                        .putByte('H').putByte(displayText);
+            }
+        }
+
+        this.ensureCapacity(3);
+        this.putByte(ESCAPE).putByte('8').putByte('\n');
+        this.flush();
+    }
+
+    /**
+     * Writes the whole viewport into the buffer.
+     *
+     * @param frame Where to record the character shown in each element, or null to not record them. Ignored for revealed frames.
+     */
+    private void writeFrame (final boolean revealed, @Nullable final char[] frame) {
+        final int size = this.viewportSize;
+        this.ensureCapacity(getFrameSize(this.rowLabelWidth, size));
+
+        // Column letters, over the middle of each element where they fit. Labels over three letters long are wider than an element, so
+        // those start at their element and are left out where they'd run into the label before.
+        final int lineStart = this.position;
+        this.putSpaces(this.rowLabelWidth + 1);
+
+        for (int x = 0; x < size; x++) {
+            final int labelLength = Positions.getColumnLabelLength(this.viewportX + x);
+            this.ensureCapacity(labelLength + 3);
+
+            if (labelLength < 3) {
+                this.putSpaces(3 - labelLength - 1);
+                this.position = Positions.writeColumnLabel(this.viewportX + x, this.buffer, this.position);
+                this.putByte(' ');
+                continue;
+            }
+
+            final int elementStart = lineStart + this.rowLabelWidth + 1 + x * 3;
+            if (this.position > elementStart) continue;
+
+            this.putSpaces(elementStart - this.position);
+            this.position = Positions.writeColumnLabel(this.viewportX + x, this.buffer, this.position);
+            this.putByte(' ');
+        }
+
+        this.putByte('\n');
+        this.ensureCapacity((this.rowLabelWidth + 2 + size * 3) * size);
+
+        for (int y = 0; y < size; y++) {
+            final int boardY = this.viewportY + y;
+
+            // Row numbers, right aligned.
+            this.putSpaces(this.rowLabelWidth - stringSize(boardY + 1));
+            this.putNumber(boardY + 1).putByte(' ');
+
+            for (int x = 0; x < size; x++) {
+                final int boardX = this.viewportX + x;
+                final char displayText;
+
+                if (!revealed) {
+                    displayText = this.board.getDisplayText(boardX, boardY);
+                    if (frame != null) frame[y * size + x] = displayText;
+                } else if (!this.board.isGenerated(boardX, boardY)) {
+                    displayText = '?';
+                } else {
+                    displayText = this.board.getTreasureItemId(boardX, boardY) >= 0 ? 'X' : 'O';
+                }
+
+                this.putByte('[').putByte(displayText).putByte(']');
+            }
+
+            this.putByte('\n');
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel and resets it.
+     */
+    private void flush () {
+        try {
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(this.buffer, 0, this.position);
+            while (byteBuffer.hasRemaining()) this.channel.write(byteBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write board.", e);
+        } finally {
+            this.position = 0;
+        }
+    }
+
+    private void ensureCapacity (final int extra) {
+        if (this.position + extra > this.buffer.length)
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + extra));
+    }
+
+    private BoardRenderer putByte (final int value) {
+        this.buffer[this.position++] = (byte) value;
+        return this;
+    }
+
+    private BoardRenderer putAscii (final String value) {
+        for (int i = 0; i < value.length(); i++) this.buffer[this.position++] = (byte) value.charAt(i);
+        return this;
+    }
+
+    private void putSpaces (final int count) {
+        for (int i = 0; i < count; i++) this.buffer[this.position++] = ' ';
+    }
+
+    /**
+     * Writes a non-negative number in decimal, without creating a string.
+     */
+    private BoardRenderer putNumber (int value) {
+        final int end = this.position + stringSize(value);
+
+        for (int i = end - 1; i >= this.position; i--) {
+            this.buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        this.position = end;
+        return this;
+    }
+
+    /**
+     * @return The number of digits in a non-negative number.
+     */
+    private static int stringSize (final int value) {
+        int digits = 1;
+        for (int limit = 10; value >= limit && digits < 10; limit *= 10) digits++;
+        return digits;
+    }
+
+}
@@ -0,0 +1,423 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementation of ITreasureBoard for very large boards, which generates itself lazily in 64 by 64 chunks. A chunk's treasure is
+ * generated on first access from a seed made from the board seed and chunk index, so chunks nobody has touched take no memory. Only a
+ * limited number of generated chunks are cached. When the least recently used one is evicted, just the changes made to it are kept,
+ * and these are reapplied when it's next generated.
+ *
+ * The board is thread-safe, with every method locking the whole board, as chunks are generated and evicted as the board is used.
+ *
+ * The board generates its own treasure, so treasure can't be added to it. Each chunk gets its share of the board's treasure count by
+ * area, rounded randomly so the board holds the given count on average.
+ *
+ * The board doesn't keep a heatmap, as counting what's left would mean generating every chunk.
+ *
+ * @author Harley O'Connor
+ */
+public final class ChunkedTreasureBoard implements ITreasureBoard {
+
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_AREA = CHUNK_SIZE * CHUNK_SIZE;
+    /** Maximum number of generated chunks kept in memory. */
+    private static final int CACHED_CHUNKS = 256;
+    /** Number of random elements to try before counting the free elements when picking a free monster slot in a rectangle. */
+    private static final int RANDOM_MONSTER_SLOT_ATTEMPTS = 4;
+
+    private final int size;
+    /** Registry the treasure item ids refer to. */
+    private final TreasureRegistry treasureRegistry;
+    private final int chunksPerSide;
+    private final long seed;
+    /** Average number of treasure items per element. */
+    private final double treasureDensity;
+
+    /** Generated chunks by chunk index (chunk y * chunks per side + chunk x), in least recently used order. */
+    private final Map<Integer, Chunk> chunks = new ChunkCache(this);
+    /** Changes made to chunks that have been evicted, by chunk index. Chunks that were never changed have no entry. */
+    private final Map<Integer, ChunkDelta> deltas = new HashMap<>();
+
+    /** The last chunk accessed and its index, so repeated access to one chunk skips the cache lookup. */
+    private int lastChunkIndex = -1;
+    private Chunk lastChunk;
+
+    /** Element indexes (y * size + x) holding a monster, and the monster in each, in the first monsterCount entries. */
+    private long[] monsterElements = new long[8];
+    private Monster[] monsters = new Monster[8];
+    private int monsterCount;
+
+    /**
+     * @param size The width and height of the board.
+     * @param treasureRegistry The registry to pick treasure items from.
+     * @param treasureCount The number of treasure items the board should hold on average.
+     * @param seed The seed to generate chunks from.
+     */
+    public ChunkedTreasureBoard (final int size, final TreasureRegistry treasureRegistry, final int treasureCount, final long seed) {
+        this.size = size;
+        this.treasureRegistry = treasureRegistry;
+        this.chunksPerSide = (size + CHUNK_MASK) >>> CHUNK_BITS;
+
+        if ((long) this.chunksPerSide * this.chunksPerSide > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Board size " + size + " is too large to chunk.");
+
+        this.seed = seed;
+        this.treasureDensity = (double) treasureCount / ((long) size * size);
+    }
+
+    /**
+     * Estimates how much memory a board of the given size takes up at most, not counting the changes kept for evicted chunks (which
+     * are a few bytes per changed element).
+     *
+     * @param size The width and height of the board.
+     * @return The estimated size of the generated chunks in bytes.
+     */
+    public static long getMemoryEstimate (final int size) {
+        final long chunksPerSide = (size + CHUNK_MASK) >>> CHUNK_BITS;
+        // Treasure item ids, taken bits and display text for each cached chunk.
+        return Math.min(CACHED_CHUNKS, chunksPerSide * chunksPerSide) * ((long) CHUNK_AREA * Integer.BYTES + CHUNK_AREA / 8 + CHUNK_AREA * Character.BYTES);
+    }
+
+    private Chunk getChunk (final int x, final int y) {
+        final int chunkIndex = (y >>> CHUNK_BITS) * this.chunksPerSide + (x >>> CHUNK_BITS);
+        if (chunkIndex == this.lastChunkIndex) return this.lastChunk;
+
+        Chunk chunk = this.chunks.get(chunkIndex);
+
+        if (chunk == null) {
+            chunk = this.generate(chunkIndex);
+            this.chunks.put(chunkIndex, chunk);
+        }
+
+        this.lastChunkIndex = chunkIndex;
+        return this.lastChunk = chunk;
+    }
+
+    /**
+     * @return Whether the chunk holding the given position has been generated, either being cached or having changes kept from when
+     * it was evicted.
+     */
+    private boolean isChunkGenerated (final int x, final int y) {
+        final int chunkIndex = (y >>> CHUNK_BITS) * this.chunksPerSide + (x >>> CHUNK_BITS);
+        return chunkIndex == this.lastChunkIndex || this.chunks.containsKey(chunkIndex) || this.deltas.containsKey(chunkIndex);
+    }
+
+    private static int getLocalIndex (final int x, final int y) {
+        return (y & CHUNK_MASK) << CHUNK_BITS | (x & CHUNK_MASK);
+    }
+
+    /**
+     * Generates the given chunk from its seed, and applies any changes kept from when it was last evicted.
+     */
+    private Chunk generate (final int chunkIndex) {
+        final int width = Math.min(CHUNK_SIZE, this.size - (chunkIndex % this.chunksPerSide << CHUNK_BITS));
+        final int height = Math.min(CHUNK_SIZE, this.size - (chunkIndex / this.chunksPerSide << CHUNK_BITS));
+        final RandomSource random = SplittableRandomSource.forIndex(this.seed, chunkIndex);
+        final Chunk chunk = new Chunk();
+
+        final double expectedTreasureCount = this.treasureDensity * width * height;
+        int treasureCount = (int) expectedTreasureCount;
+        if (random.nextDouble() < expectedTreasureCount - treasureCount) treasureCount++;
+        treasureCount = Math.min(treasureCount, width * height);
+
+        for (int i = 0; i < treasureCount; i++) {
+            int localIndex;
+
+            // Treasure is sparse on boards large enough to chunk, so an element already holding treasure is rarely picked.
+            do {
+                localIndex = random.nextInt(height) << CHUNK_BITS | random.nextInt(width);
+            } while (chunk.treasureItems[localIndex] != 0);
+
+            chunk.treasureItems[localIndex] = this.treasureRegistry.getRandomId(random) + 1;
+            chunk.taken[localIndex >>> 6] &= ~(1L << localIndex);
+        }
+
+        final ChunkDelta delta = this.deltas.remove(chunkIndex);
+
+        if (delta != null) {
+            delta.applyTo(chunk);
+            chunk.changed = true;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Drops the given chunk from memory, keeping any changes made to it.
+     */
+    private void evict (final int chunkIndex, final Chunk chunk) {
+        if (chunkIndex == this.lastChunkIndex) {
+            this.lastChunkIndex = -1;
+            this.lastChunk = null;
+        }
+
+        if (chunk.changed) this.deltas.put(chunkIndex, new ChunkDelta(chunk));
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized int getTreasureItemId(final int x, final int y) {
+        return this.getChunk(x, y).treasureItems[getLocalIndex(x, y)] - 1;
+    }
+
+    @Nullable
+    @Override
+    public synchronized ITreasureItem getTreasureItem(final int x, final int y) {
+        final int treasureItemId = this.getTreasureItemId(x, y);
+        return treasureItemId < 0 ? null : this.treasureRegistry.get(treasureItemId);
+    }
+
+    @Override
+    public synchronized boolean isTreasureItemTaken(final int x, final int y) {
+        final int localIndex = getLocalIndex(x, y);
+        return (this.getChunk(x, y).taken[localIndex >>> 6] & (1L << localIndex)) != 0;
+    }
+
+    @Override
+    public synchronized boolean takeTreasureItem(final int x, final int y) {
+        final Chunk chunk = this.getChunk(x, y);
+        final int localIndex = getLocalIndex(x, y);
+
+        if (chunk.treasureItems[localIndex] == 0 || (chunk.taken[localIndex >>> 6] & (1L << localIndex)) != 0) return false;
+
+        chunk.taken[localIndex >>> 6] |= 1L << localIndex;
+        chunk.changed = true;
+        return true;
+    }
+
+    @Override
+    public synchronized void setTreasureItemTaken(final int x, final int y, final boolean treasureItemTaken) {
+        final Chunk chunk = this.getChunk(x, y);
+        final int localIndex = getLocalIndex(x, y);
+
+        // Elements without treasure always count as taken, as in TreasureBoard.
+        if (chunk.treasureItems[localIndex] == 0) return;
+
+        if (treasureItemTaken) chunk.taken[localIndex >>> 6] |= 1L << localIndex;
+        else chunk.taken[localIndex >>> 6] &= ~(1L << localIndex);
+
+        chunk.changed = true;
+    }
+
+    private int getMonsterIndex (final int x, final int y) {
+        final long element = (long) y * this.size + x;
+
+        for (int i = 0; i < this.monsterCount; i++)
+            if (this.monsterElements[i] == element) return i;
+
+        return -1;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Monster getMonster(final int x, final int y) {
+        final int monsterIndex = this.getMonsterIndex(x, y);
+        return monsterIndex < 0 ? null : this.monsters[monsterIndex];
+    }
+
+    @Override
+    public synchronized void setMonster(final int x, final int y, final Monster monster) {
+        final int monsterIndex = this.getMonsterIndex(x, y);
+
+        if (monsterIndex >= 0) {
+            this.monsters[monsterIndex] = monster;
+            return;
+        }
+
+        if (this.monsterCount == this.monsters.length) {
+            this.monsterElements = Arrays.copyOf(this.monsterElements, this.monsterCount * 2);
+            this.monsters = Arrays.copyOf(this.monsters, this.monsterCount * 2);
+        }
+
+        this.monsterElements[this.monsterCount] = (long) y * this.size + x;
+        this.monsters[this.monsterCount++] = monster;
+    }
+
+    @Override
+    public synchronized void clearMonster(final int x, final int y) {
+        final int monsterIndex = this.getMonsterIndex(x, y);
+        if (monsterIndex < 0) return;
+
+        // Move the last monster into the gap.
+        this.monsterCount--;
+        this.monsterElements[monsterIndex] = this.monsterElements[this.monsterCount];
+        this.monsters[monsterIndex] = this.monsters[this.monsterCount];
+        this.monsters[this.monsterCount] = null;
+    }
+
+    @Override
+    public synchronized boolean isMonsterSlotAvailable() {
+        return this.monsterCount < (long) this.size * this.size;
+    }
+
+    @Override
+    public synchronized long getRandomMonsterSlot(final RandomSource random) {
+        if (!this.isMonsterSlotAvailable()) return Positions.NONE;
+
+        // There are only ever a few monsters on a board this large, so a random element is almost always free.
+        while (true) {
+            final int x = random.nextInt(this.size);
+            final int y = random.nextInt(this.size);
+            if (this.getMonsterIndex(x, y) < 0) return Positions.of(x, y);
+        }
+    }
+
+    @Override
+    public synchronized long getRandomMonsterSlot(final int minX, final int minY, final int maxX, final int maxY, final RandomSource random) {
+        // Try a few uniformly random elements first, as in TreasureBoard.
+        for (int attempt = 0; attempt < RANDOM_MONSTER_SLOT_ATTEMPTS; attempt++) {
+            final int x = minX + random.nextInt(maxX - minX + 1);
+            final int y = minY + random.nextInt(maxY - minY + 1);
+            if (this.getMonsterIndex(x, y) < 0) return Positions.of(x, y);
+        }
+
+        // Otherwise count the monsters in the rectangle, and pick a free element by rank.
+        int freeCount = (maxX - minX + 1) * (maxY - minY + 1);
+
+        for (int i = 0; i < this.monsterCount; i++) {
+            final int x = (int) (this.monsterElements[i] % this.size);
+            final int y = (int) (this.monsterElements[i] / this.size);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) freeCount--;
+        }
+
+        if (freeCount == 0) return Positions.NONE;
+
+        int rank = random.nextInt(freeCount);
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (this.getMonsterIndex(x, y) < 0 && rank-- == 0) return Positions.of(x, y);
+            }
+        }
+
+        throw new IllegalStateException("Monster count in rectangle changed while picking a slot.");
+    }
+
+    @Override
+    public synchronized boolean isGenerated(final int x, final int y) {
+        return this.isChunkGenerated(x, y);
+    }
+
+    @Override
+    public synchronized char getDisplayText(final int x, final int y) {
+        // Nothing in a chunk that has never been generated has been guessed, so don't generate it just to read its display text.
+        if (!this.isChunkGenerated(x, y)) return ' ';
+
+        final char[] displayText = this.getChunk(x, y).displayText;
+        return displayText == null ? ' ' : displayText[getLocalIndex(x, y)];
+    }
+
+    @Override
+    public synchronized void setDisplayText(final int x, final int y, final char displayText) {
+        final Chunk chunk = this.getChunk(x, y);
+
+        if (chunk.displayText == null) {
+            if (displayText == ' ') return;
+
+            chunk.displayText = new char[CHUNK_AREA];
+            Arrays.fill(chunk.displayText, ' ');
+        }
+
+        chunk.displayText[getLocalIndex(x, y)] = displayText;
+        chunk.changed = true;
+    }
+
+    /**
+     * Generated chunks in least recently used order, which evicts the least recently used chunk from the board once it holds more than
+     * CACHED_CHUNKS.
+     */
+    private static final class ChunkCache extends LinkedHashMap<Integer, Chunk> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkedTreasureBoard board;
+
+        private ChunkCache (final ChunkedTreasureBoard board) {
+            super(16, 0.75f, true);
+            this.board = board;
+        }
+
+        @Override
+        protected boolean removeEldestEntry (final Map.Entry<Integer, Chunk> eldest) {
+            if (this.size() <= CACHED_CHUNKS) return false;
+
+            this.board.evict(eldest.getKey(), eldest.getValue());
+            return true;
+        }
+    }
+
+    /**
+     * A generated chunk. Elements are indexed by local y * 64 + local x, so in chunks on the board's edge some are unused.
+     */
+    private static final class Chunk {
+        /** Registry id of the treasure item in each element, plus one (so zero means no treasure). */
+        private final int[] treasureItems = new int[CHUNK_AREA];
+        /** Set bits are elements whose treasure is taken. Elements without treasure count as taken. */
+        private final long[] taken = new long[CHUNK_AREA / Long.SIZE];
+        /** Character displayed inside the brackets of each element, or null if every element shows a space. */
+        @Nullable
+        private char[] displayText;
+        /** Whether the chunk has changed since it was generated. */
+        private boolean changed;
+
+        private Chunk() {
+            Arrays.fill(this.taken, -1L);
+        }
+    }
+
+    /**
+     * The changes made to a chunk since it was generated.
+     */
+    private static final class ChunkDelta {
+        /** Local indexes of elements whose taken state differs from when the chunk was generated. */
+        private final short[] flippedTaken;
+        /** Local index (in the high 16 bits) and character (in the low 16 bits) of each element showing something other than a space. */
+        private final int[] displayText;
+
+        private ChunkDelta (final Chunk chunk) {
+            final short[] flippedTaken = new short[CHUNK_AREA];
+            final int[] displayText = new int[chunk.displayText == null ? 0 : CHUNK_AREA];
+            int flippedCount = 0;
+            int displayTextCount = 0;
+
+            for (int i = 0; i < CHUNK_AREA; i++) {
+                final boolean generatedTaken = chunk.treasureItems[i] == 0;
+                if (((chunk.taken[i >>> 6] & (1L << i)) != 0) != generatedTaken) flippedTaken[flippedCount++] = (short) i;
+                if (chunk.displayText != null && chunk.displayText[i] != ' ') displayText[displayTextCount++] = i << 16 | chunk.displayText[i];
+            }
+
+            this.flippedTaken = Arrays.copyOf(flippedTaken, flippedCount);
+            this.displayText = Arrays.copyOf(displayText, displayTextCount);
+        }
+
+        private void applyTo (final Chunk chunk) {
+            for (final short localIndex : this.flippedTaken)
+                chunk.taken[localIndex >>> 6] ^= 1L << localIndex;
+
+            if (this.displayText.length == 0) return;
+
+            chunk.displayText = new char[CHUNK_AREA];
+            Arrays.fill(chunk.displayText, ' ');
+
+            for (final int element : this.displayText)
+                chunk.displayText[element >>> 16] = (char) element;
+        }
+    }
+
+}
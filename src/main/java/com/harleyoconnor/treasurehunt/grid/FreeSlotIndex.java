@@ -0,0 +1,176 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+/**
+ * Tracks which slots of a board are free. Occupancy is held as a bit set, with a Fenwick tree over the number of free slots in
+ * each 64-bit word, so checking for a free slot is constant time and finding the nth free slot is logarithmic time.
+ *
+ * @author Harley O'Connor
+ */
+final class FreeSlotIndex {
+
+    private final int capacity;
+    /** Set bits are occupied slots. Bits past the capacity in the last word are always set. */
+    private final long[] occupied;
+    /** One-based Fenwick tree over the free slot count of each word. */
+    private final int[] tree;
+    /** Highest power of two not greater than the number of words, used to walk down the tree. */
+    private final int treeStep;
+    private int freeCount;
+
+    FreeSlotIndex (final int capacity) {
+        this(capacity, new long[(capacity + 63) >>> 6]);
+    }
+
+    /**
+     * @param capacity The number of slots.
+     * @param occupied The occupancy words, in which set bits are occupied slots. Taken over by the index.
+     */
+    FreeSlotIndex (final int capacity, final long[] occupied) {
+        this.capacity = capacity;
+
+        final int words = (capacity + 63) >>> 6;
+        this.occupied = occupied;
+        this.tree = new int[words + 1];
+        this.treeStep = words == 0 ? 0 : Integer.highestOneBit(words);
+
+        if ((capacity & 63) != 0) this.occupied[words - 1] |= -1L << (capacity & 63);
+
+        // Build the tree in linear time by pushing each node's total up to its parent.
+        for (int i = 1; i <= words; i++) {
+            final int wordFreeCount = Long.bitCount(~this.occupied[i - 1]);
+            this.freeCount += wordFreeCount;
+            this.tree[i] += wordFreeCount;
+            final int parent = i + (i & -i);
+            if (parent <= words) this.tree[parent] += this.tree[i];
+        }
+    }
+
+    int getCapacity () {
+        return this.capacity;
+    }
+
+    int getFreeCount () {
+        return this.freeCount;
+    }
+
+    boolean isOccupied (final int slot) {
+        return (this.occupied[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Marks the given slot as occupied. Does nothing if it is already occupied.
+     */
+    void occupy (final int slot) {
+        final int word = slot >>> 6;
+        final long bit = 1L << slot;
+
+        if ((this.occupied[word] & bit) != 0) return;
+
+        this.occupied[word] |= bit;
+        this.freeCount--;
+        this.updateTree(word, -1);
+    }
+
+    /**
+     * Marks the given slot as free. Does nothing if it is already free.
+     */
+    void free (final int slot) {
+        final int word = slot >>> 6;
+        final long bit = 1L << slot;
+
+        if ((this.occupied[word] & bit) == 0) return;
+
+        this.occupied[word] &= ~bit;
+        this.freeCount++;
+        this.updateTree(word, 1);
+    }
+
+    private void updateTree (final int word, final int delta) {
+        for (int i = word + 1; i < this.tree.length; i += i & -i)
+            this.tree[i] += delta;
+    }
+
+    /**
+     * Gets the free slot with the given rank, counting free slots in index order from zero. Picking a uniformly random rank below
+     * the free count therefore picks a uniformly random free slot.
+     *
+     * @param rank The rank of the free slot, between 0 and the free count (exclusive).
+     * @return The index of the free slot.
+     */
+    int getFreeSlot (int rank) {
+        if (rank < 0 || rank >= this.freeCount)
+            throw new IndexOutOfBoundsException("Free slot rank " + rank + " out of bounds for " + this.freeCount + " free slots.");
+
+        // Walk down the tree to find the word holding the free slot.
+        int word = 0;
+        for (int step = this.treeStep; step > 0; step >>>= 1) {
+            final int next = word + step;
+            if (next < this.tree.length && this.tree[next] <= rank) {
+                word = next;
+                rank -= this.tree[next];
+            }
+        }
+
+        // Skip past the lower free bits of the word.
+        long freeBits = ~this.occupied[word];
+        for (int i = 0; i < rank; i++)
+            freeBits &= freeBits - 1;
+
+        return (word << 6) + Long.numberOfTrailingZeros(freeBits);
+    }
+
+    /**
+     * Counts the free slots in the given range a word at a time.
+     *
+     * @param from The first slot of the range (inclusive).
+     * @param to The last slot of the range (exclusive).
+     * @return The number of free slots in the range.
+     */
+    int getFreeCount (final int from, final int to) {
+        int count = 0;
+
+        for (int word = from >>> 6; word << 6 < to; word++)
+            count += Long.bitCount(~this.occupied[word] & getRangeMask(word, from, to));
+
+        return count;
+    }
+
+    /**
+     * Gets the free slot with the given rank within the given range, counting free slots in index order from zero.
+     *
+     * @param from The first slot of the range (inclusive).
+     * @param to The last slot of the range (exclusive).
+     * @param rank The rank of the free slot, between 0 and the range's free count (exclusive).
+     * @return The index of the free slot.
+     */
+    int getFreeSlot (final int from, final int to, int rank) {
+        for (int word = from >>> 6; word << 6 < to; word++) {
+            long freeBits = ~this.occupied[word] & getRangeMask(word, from, to);
+            final int freeCount = Long.bitCount(freeBits);
+
+            if (rank >= freeCount) {
+                rank -= freeCount;
+                continue;
+            }
+
+            // Skip past the lower free bits of the word.
+            for (int i = 0; i < rank; i++)
+                freeBits &= freeBits - 1;
+
+            return (word << 6) + Long.numberOfTrailingZeros(freeBits);
+        }
+
+        throw new IndexOutOfBoundsException("Free slot rank out of bounds for range " + from + " to " + to + ".");
+    }
+
+    /**
+     * @return A mask of the bits of the given word that fall within the range.
+     */
+    private static long getRangeMask (final int word, final int from, final int to) {
+        final int wordStart = word << 6;
+        final long lowMask = from > wordStart ? -1L << (from - wordStart) : -1L;
+        final long highMask = to - wordStart < 64 ? ~(-1L << (to - wordStart)) : -1L;
+        return lowMask & highMask;
+    }
+
+}
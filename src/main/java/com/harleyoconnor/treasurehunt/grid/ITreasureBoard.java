@@ -0,0 +1,119 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+
+import javax.annotation.Nullable;
+
+/**
+ * Interface for the treasure hunt board. For default implementation use TreasureBoard, or ChunkedTreasureBoard for very large boards.
+ *
+ * Elements are addressed by their x (column) and y (row) index, both starting at 0.
+ *
+ * Boards don't all place treasure the same way, so placing it isn't part of the interface. TreasureBoard is filled with treasure
+ * through its own methods, while ChunkedTreasureBoard generates its own as it's explored.
+ *
+ * @author Harley O'Connor
+ */
+public interface ITreasureBoard {
+
+    /**
+     * @return The width and height of the board.
+     */
+    int getSize();
+
+    /**
+     * @return The id of the treasure item at the given position, or -1 if there isn't one.
+     */
+    int getTreasureItemId(int x, int y);
+
+    @Nullable
+    ITreasureItem getTreasureItem(int x, int y);
+
+    /**
+     * @return Whether the treasure of the given position has been decided. Boards that generate themselves as they're explored only
+     * decide an element's treasure once it's first looked at, so this is false until then.
+     */
+    default boolean isGenerated(final int x, final int y) {
+        return true;
+    }
+
+    boolean isTreasureItemTaken(int x, int y);
+
+    /**
+     * Sets whether the treasure item at the given position is taken. Does nothing if there isn't one, as elements without treasure
+     * always count as taken.
+     */
+    void setTreasureItemTaken(int x, int y, boolean treasureItemTaken);
+
+    /**
+     * Marks the treasure item at the given position as taken, atomically, so if many threads try to take the same treasure item only
+     * one of them gets it.
+     *
+     * @return True if the treasure item was there to be taken, false if it was already taken or there wasn't one.
+     */
+    boolean takeTreasureItem(int x, int y);
+
+    /**
+     * Gets the heatmap of the treasure left on the board, building it the first time. Build it before treasure is taken from more than
+     * one thread, as treasure taken while it's being built may be missed.
+     *
+     * @return The heatmap, or null if the board doesn't keep one.
+     */
+    @Nullable
+    default TreasureHeatmap getHeatmap() {
+        return null;
+    }
+
+    @Nullable
+    Monster getMonster(int x, int y);
+    void setMonster(int x, int y, Monster monster);
+    void clearMonster(int x, int y);
+
+    /**
+     * @return True if at least one element doesn't hold a monster.
+     */
+    boolean isMonsterSlotAvailable();
+
+    /**
+     * Picks a uniformly random element that doesn't hold a monster.
+     *
+     * @return The position of the element, or Positions.NONE if every element holds a monster.
+     */
+    long getRandomMonsterSlot(RandomSource random);
+
+    /**
+     * Picks a uniformly random element within the given rectangle that doesn't hold a monster. The work done is bounded by the size
+     * of the rectangle, not the board.
+     *
+     * @param minX The lowest x index of the rectangle (inclusive), at least 0.
+     * @param minY The lowest y index of the rectangle (inclusive), at least 0.
+     * @param maxX The highest x index of the rectangle (inclusive), less than the board size.
+     * @param maxY The highest y index of the rectangle (inclusive), less than the board size.
+     * @return The position of the element, or Positions.NONE if every element in the rectangle holds a monster.
+     */
+    long getRandomMonsterSlot(int minX, int minY, int maxX, int maxY, RandomSource random);
+
+    /**
+     * @return The character displayed inside the brackets of the given position, for example 'X' for [X].
+     */
+    char getDisplayText(int x, int y);
+
+    /**
+     * Sets the character displayed inside the brackets of the given position, for example 'X' for [X].
+     */
+    void setDisplayText(int x, int y, char displayText);
+
+    /**
+     * Converts a position label such as A1 into its position.
+     *
+     * @param position The position label, in either case.
+     * @return The position, or Positions.NONE if the label isn't a valid position on this board.
+     * @see Positions#parse(CharSequence, int)
+     */
+    default long getElementPosition(final CharSequence position) {
+        return Positions.parse(position, this.getSize());
+    }
+
+}
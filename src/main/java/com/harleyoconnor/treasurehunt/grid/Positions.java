@@ -0,0 +1,175 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import java.util.Arrays;
+
+/**
+ * Packs the x and y indexes of an element into a single long, so positions can be passed around and stored without boxing, and
+ * converts positions to and from labels like the ones players type.
+ *
+ * Labels are a column followed by a row, for example B7. Columns are lettered like a spreadsheet, A to Z then AA, AB and so on, and
+ * rows are numbered from 1. Letters may be either case.
+ *
+ * @author Harley O'Connor
+ */
+public final class Positions {
+
+    /** Returned instead of a position when there isn't one, for example when a label isn't on the board. */
+    public static final long NONE = -1L;
+
+    private Positions() {}
+
+    /**
+     * @return The position of the element with the given indexes, which must not be negative.
+     */
+    public static long of (final int x, final int y) {
+        return (long) y << 32 | x;
+    }
+
+    public static int getX (final long position) {
+        return (int) position;
+    }
+
+    public static int getY (final long position) {
+        return (int) (position >>> 32);
+    }
+
+    /**
+     * Parses a label such as B7 or ab12, ignoring any whitespace around it. Doesn't allocate.
+     *
+     * @param label The label.
+     * @param boardSize The width and height of the board the label is on.
+     * @return The position, or NONE if the label isn't valid or isn't on the board.
+     */
+    public static long parse (final CharSequence label, final int boardSize) {
+        return parse(label, 0, label.length(), boardSize);
+    }
+
+    /**
+     * Parses the label between the given indexes of a character sequence, ignoring any whitespace around it. Doesn't allocate.
+     *
+     * @param text The text holding the label.
+     * @param start The index of the first character of the label (inclusive).
+     * @param end The index after the last character of the label (exclusive).
+     * @param boardSize The width and height of the board the label is on.
+     * @return The position, or NONE if the label isn't valid or isn't on the board.
+     */
+    public static long parse (final CharSequence text, int start, int end, final int boardSize) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        // Columns are bijective base 26: A is 1, Z is 26 and AA is 27. Stop once past the board, so long labels can't overflow.
+        int column = 0;
+        int i = start;
+
+        for (; i < end && column <= boardSize; i++) {
+            final char c = text.charAt(i);
+
+            if (c >= 'A' && c <= 'Z') {
+                column = column * 26 + (c - 'A' + 1);
+            } else if (c >= 'a' && c <= 'z') {
+                column = column * 26 + (c - 'a' + 1);
+            } else {
+                break;
+            }
+        }
+
+        if (column == 0 || column > boardSize || i == end) return NONE;
+
+        int row = 0;
+
+        for (; i < end; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9' || row > boardSize) return NONE;
+            row = row * 10 + (c - '0');
+        }
+
+        return row < 1 || row > boardSize ? NONE : of(column - 1, row - 1);
+    }
+
+    /**
+     * Parses every label in a script of guesses, separated by whitespace or commas, in one pass.
+     *
+     * @param script The script, for example the contents of a file with a label per line.
+     * @param boardSize The width and height of the board the labels are on.
+     * @return The positions, in order.
+     * @throws IllegalArgumentException If a label isn't valid or isn't on the board.
+     */
+    public static long[] parseAll (final CharSequence script, final int boardSize) {
+        long[] positions = new long[16];
+        int count = 0;
+        int i = 0;
+
+        while (i < script.length()) {
+            if (isSeparator(script.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            final int start = i;
+            while (i < script.length() && !isSeparator(script.charAt(i))) i++;
+
+            final long position = parse(script, start, i, boardSize);
+            if (position == NONE)
+                throw new IllegalArgumentException("Guess '" + script.subSequence(start, i) + "' isn't a position on a board of size " + boardSize + ".");
+
+            if (count == positions.length) positions = Arrays.copyOf(positions, count * 2);
+            positions[count++] = position;
+        }
+
+        return Arrays.copyOf(positions, count);
+    }
+
+    private static boolean isSeparator (final char c) {
+        return c == ',' || Character.isWhitespace(c);
+    }
+
+    /**
+     * @return The label of the position, for example B7.
+     */
+    public static String toLabel (final long position) {
+        return appendColumnLabel(new StringBuilder(8), getX(position)).append(getY(position) + 1).toString();
+    }
+
+    /**
+     * @return The number of letters in the label of the given column.
+     */
+    public static int getColumnLabelLength (int x) {
+        int length = 1;
+
+        while (x >= 26) {
+            x = x / 26 - 1;
+            length++;
+        }
+
+        return length;
+    }
+
+    /**
+     * Writes the label of the given column into a byte array as ASCII, without creating a string.
+     *
+     * @return The index after the last letter written.
+     */
+    public static int writeColumnLabel (int x, final byte[] buffer, final int offset) {
+        final int end = offset + getColumnLabelLength(x);
+
+        // Letters come out last first.
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('A' + x % 26);
+            x = x / 26 - 1;
+        }
+
+        return end;
+    }
+
+    public static StringBuilder appendColumnLabel (final StringBuilder builder, int x) {
+        final int start = builder.length();
+
+        for (int i = getColumnLabelLength(x); i > 0; i--) {
+            builder.insert(start, (char) ('A' + x % 26));
+            x = x / 26 - 1;
+        }
+
+        return builder;
+    }
+
+}
@@ -0,0 +1,356 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Default implementation of ITreasureBoard. Rather than holding an object for every element, each property is stored in its own flat
+ * primitive array indexed by y * size + x.
+ *
+ * Treasure can be taken, and display text set, from many threads at once. Treasure must only be placed, and monsters only moved, by one
+ * thread at a time.
+ *
+ * @author Harley O'Connor
+ */
+public final class TreasureBoard implements ITreasureBoard {
+
+    /** Number of random elements to try before counting the free elements when picking a free monster slot in a rectangle. */
+    private static final int RANDOM_MONSTER_SLOT_ATTEMPTS = 4;
+
+    private final int size;
+    /** Registry the treasure item ids refer to. */
+    private final TreasureRegistry treasureRegistry;
+
+    /** Registry id of the treasure item in each element, plus one (so zero means no treasure). */
+    private final int[] treasureItems;
+    /**
+     * Set bits are elements whose treasure is taken. Elements without treasure count as taken. Bits are only changed by compare and
+     * set, so treasure can be taken from many threads at once.
+     */
+    private final AtomicLongArray treasureTaken;
+    /** Id of the monster in each element, plus one (so zero means no monster). */
+    private final short[] monsterSlots;
+    /** Character displayed inside the brackets of each element. */
+    private final char[] displayText;
+
+    /** Elements without a treasure item, kept up to date by setTreasureItem. */
+    private final FreeSlotIndex freeTreasureSlots;
+    /** Elements without a monster, kept up to date by setMonster and clearMonster. */
+    private final FreeSlotIndex freeMonsterSlots;
+
+    /** Monsters that have been placed on the board, indexed by their id. */
+    private final List<Monster> monsters = new ArrayList<>();
+
+    /** Heatmap of the treasure left, or null until it's first asked for. Kept up to date whenever treasure is placed or taken. */
+    @Nullable
+    private volatile TreasureHeatmap heatmap;
+
+    public TreasureBoard (final int size, final TreasureRegistry treasureRegistry) {
+        this(size, treasureRegistry, new int[size * size], new long[(size * size + 63) >>> 6], new char[size * size]);
+
+        for (int i = 0; i < this.treasureTaken.length(); i++) this.treasureTaken.set(i, -1L);
+        Arrays.fill(this.displayText, ' ');
+    }
+
+    private TreasureBoard (final int size, final TreasureRegistry treasureRegistry, final int[] treasureItems, final long[] treasureTaken, final char[] displayText) {
+        this.size = size;
+        this.treasureRegistry = treasureRegistry;
+
+        final int area = size * size;
+        this.treasureItems = treasureItems;
+        this.treasureTaken = new AtomicLongArray(treasureTaken);
+        this.monsterSlots = new short[area];
+        this.displayText = displayText;
+        this.freeMonsterSlots = new FreeSlotIndex(area);
+
+        // Elements holding treasure are occupied treasure slots.
+        final long[] treasureSlotsOccupied = new long[(area + 63) >>> 6];
+        for (int i = 0; i < area; i++)
+            if (treasureItems[i] != 0) treasureSlotsOccupied[i >>> 6] |= 1L << i;
+        this.freeTreasureSlots = new FreeSlotIndex(area, treasureSlotsOccupied);
+    }
+
+    /**
+     * Reads a board written by writeState.
+     *
+     * @param buffer The buffer to read from, positioned at the start of the board's state.
+     * @param size The width and height of the board.
+     * @param treasureRegistry The registry the treasure item ids refer to.
+     * @return The board, without any monsters.
+     * @throws IllegalArgumentException If the state refers to treasure items that aren't in the registry.
+     */
+    public static TreasureBoard readState (final ByteBuffer buffer, final int size, final TreasureRegistry treasureRegistry) {
+        final int area = size * size;
+        final int[] treasureItems = new int[area];
+        final long[] treasureTaken = new long[(area + 63) >>> 6];
+        final char[] displayText = new char[area];
+
+        buffer.asIntBuffer().get(treasureItems);
+        buffer.position(buffer.position() + area * Integer.BYTES);
+        buffer.asLongBuffer().get(treasureTaken);
+        buffer.position(buffer.position() + treasureTaken.length * Long.BYTES);
+        buffer.asCharBuffer().get(displayText);
+        buffer.position(buffer.position() + area * Character.BYTES);
+
+        for (final int treasureItem : treasureItems)
+            if (treasureItem < 0 || treasureItem > treasureRegistry.size())
+                throw new IllegalArgumentException("Treasure item id " + (treasureItem - 1) + " isn't in the registry.");
+
+        return new TreasureBoard(size, treasureRegistry, treasureItems, treasureTaken, displayText);
+    }
+
+    /**
+     * Writes the treasure items, taken elements and display text as packed arrays, so they can be read back with readState. Monsters
+     * aren't written, as they're held by the game.
+     *
+     * @param buffer The buffer to write to, with at least getStateSize bytes remaining.
+     */
+    public void writeState (final ByteBuffer buffer) {
+        final long[] treasureTaken = new long[this.treasureTaken.length()];
+        for (int i = 0; i < treasureTaken.length; i++) treasureTaken[i] = this.treasureTaken.get(i);
+
+        buffer.asIntBuffer().put(this.treasureItems);
+        buffer.position(buffer.position() + this.treasureItems.length * Integer.BYTES);
+        buffer.asLongBuffer().put(treasureTaken);
+        buffer.position(buffer.position() + treasureTaken.length * Long.BYTES);
+        buffer.asCharBuffer().put(this.displayText);
+        buffer.position(buffer.position() + this.displayText.length * Character.BYTES);
+    }
+
+    /**
+     * @return The number of bytes writeState writes.
+     */
+    public int getStateSize () {
+        final int area = this.size * this.size;
+        return area * Integer.BYTES + ((area + 63) >>> 6) * Long.BYTES + area * Character.BYTES;
+    }
+
+    /**
+     * Estimates how much memory a board of the given size takes up, for capping the total memory of many games.
+     *
+     * @param size The width and height of the board.
+     * @return The estimated size of the board's arrays in bytes.
+     */
+    public static long getMemoryEstimate (final int size) {
+        final long area = (long) size * size;
+        // Treasure item ids, monster slots, display text, taken bit set, and the two free slot indexes (bit set and tree each).
+        return area * Integer.BYTES + area * Short.BYTES + area * Character.BYTES + area / 8 + 2 * (area / 8 + area / 16);
+    }
+
+    private int getIndex (final int x, final int y) {
+        return y * this.size + x;
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public int getTreasureItemId(final int x, final int y) {
+        return this.treasureItems[this.getIndex(x, y)] - 1;
+    }
+
+    @Nullable
+    @Override
+    public ITreasureItem getTreasureItem(final int x, final int y) {
+        final int treasureItemId = this.getTreasureItemId(x, y);
+        return treasureItemId < 0 ? null : this.treasureRegistry.get(treasureItemId);
+    }
+
+    /**
+     * Sets the treasure item at the given position, and marks it as not taken.
+     *
+     * @param treasureItemId The registry id of the treasure item to set.
+     */
+    public void setTreasureItem(final int x, final int y, final int treasureItemId) {
+        final int index = this.getIndex(x, y);
+
+        // Take any treasure item being replaced out of the heatmap.
+        if (this.setTaken(index, true)) this.updateHeatmap(index, -1);
+
+        this.treasureItems[index] = treasureItemId + 1;
+        this.setTaken(index, false);
+        this.updateHeatmap(index, 1);
+        this.freeTreasureSlots.occupy(index);
+    }
+
+    @Override
+    public boolean isTreasureItemTaken(final int x, final int y) {
+        final int index = this.getIndex(x, y);
+        return (this.treasureTaken.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setTreasureItemTaken(final int x, final int y, final boolean treasureItemTaken) {
+        final int index = this.getIndex(x, y);
+        if (this.treasureItems[index] != 0 && this.setTaken(index, treasureItemTaken)) this.updateHeatmap(index, treasureItemTaken ? -1 : 1);
+    }
+
+    @Override
+    public boolean takeTreasureItem(final int x, final int y) {
+        final int index = this.getIndex(x, y);
+        if (!this.setTaken(index, true)) return false;
+
+        this.updateHeatmap(index, -1);
+        return true;
+    }
+
+    @Override
+    public TreasureHeatmap getHeatmap() {
+        final TreasureHeatmap heatmap = this.heatmap;
+        if (heatmap != null) return heatmap;
+
+        synchronized (this) {
+            if (this.heatmap == null) this.heatmap = new TreasureHeatmap(this);
+            return this.heatmap;
+        }
+    }
+
+    /**
+     * Adds or takes away the treasure item at the given index from the heatmap, if there is one.
+     *
+     * @param sign 1 to add the treasure item, or -1 to take it away.
+     */
+    private void updateHeatmap (final int index, final int sign) {
+        final TreasureHeatmap heatmap = this.heatmap;
+        if (heatmap == null) return;
+
+        final ITreasureItem treasureItem = this.treasureRegistry.get(this.treasureItems[index] - 1);
+        heatmap.add(index % this.size, index / this.size, sign * treasureItem.getValue(), sign);
+    }
+
+    /**
+     * Sets whether the treasure at the given index is taken, with compare and set so bits of the same word can be changed from different
+     * threads.
+     *
+     * @return True if the taken state changed.
+     */
+    private boolean setTaken (final int index, final boolean taken) {
+        final int word = index >>> 6;
+        final long bit = 1L << index;
+
+        while (true) {
+            final long current = this.treasureTaken.get(word);
+            final long updated = taken ? current | bit : current & ~bit;
+
+            if (updated == current) return false;
+            if (this.treasureTaken.compareAndSet(word, current, updated)) return true;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Monster getMonster(final int x, final int y) {
+        final int monsterSlot = this.monsterSlots[this.getIndex(x, y)];
+        return monsterSlot == 0 ? null : this.monsters.get(monsterSlot - 1);
+    }
+
+    @Override
+    public void setMonster(final int x, final int y, final Monster monster) {
+        final int monsterId = monster.getId();
+
+        if (monsterId < 0 || monsterId >= Short.MAX_VALUE)
+            throw new IllegalArgumentException("Monster id " + monsterId + " must be between 0 and " + (Short.MAX_VALUE - 1) + ".");
+
+        while (this.monsters.size() <= monsterId) this.monsters.add(null);
+        this.monsters.set(monsterId, monster);
+
+        final int index = this.getIndex(x, y);
+        this.monsterSlots[index] = (short) (monsterId + 1);
+        this.freeMonsterSlots.occupy(index);
+    }
+
+    @Override
+    public void clearMonster(final int x, final int y) {
+        final int index = this.getIndex(x, y);
+        this.monsterSlots[index] = 0;
+        this.freeMonsterSlots.free(index);
+    }
+
+    /**
+     * @return True if at least one element doesn't hold a treasure item.
+     */
+    public boolean isTreasureSlotAvailable() {
+        return this.freeTreasureSlots.getFreeCount() > 0;
+    }
+
+    @Override
+    public boolean isMonsterSlotAvailable() {
+        return this.freeMonsterSlots.getFreeCount() > 0;
+    }
+
+    /**
+     * Picks a uniformly random element that doesn't hold a treasure item.
+     *
+     * @return The position of the element, or Positions.NONE if every element holds a treasure item.
+     */
+    public long getRandomTreasureSlot(final RandomSource random) {
+        return this.getRandomSlot(this.freeTreasureSlots, random);
+    }
+
+    @Override
+    public long getRandomMonsterSlot(final RandomSource random) {
+        return this.getRandomSlot(this.freeMonsterSlots, random);
+    }
+
+    @Override
+    public long getRandomMonsterSlot(final int minX, final int minY, final int maxX, final int maxY, final RandomSource random) {
+        // The rectangle is usually mostly free, so first try a few uniformly random elements in it. Rejecting elements holding monsters
+        // keeps the pick uniform over the free elements.
+        for (int attempt = 0; attempt < RANDOM_MONSTER_SLOT_ATTEMPTS; attempt++) {
+            final int x = minX + random.nextInt(maxX - minX + 1);
+            final int y = minY + random.nextInt(maxY - minY + 1);
+            if (!this.freeMonsterSlots.isOccupied(this.getIndex(x, y))) return Positions.of(x, y);
+        }
+
+        // Otherwise pick by rank. Each row of the rectangle is a contiguous range of slots, so count the free slots in each row's range.
+        int freeCount = 0;
+        for (int y = minY; y <= maxY; y++)
+            freeCount += this.freeMonsterSlots.getFreeCount(this.getIndex(minX, y), this.getIndex(maxX, y) + 1);
+
+        if (freeCount == 0) return Positions.NONE;
+
+        int rank = random.nextInt(freeCount);
+
+        for (int y = minY; ; y++) {
+            final int from = this.getIndex(minX, y);
+            final int to = this.getIndex(maxX, y) + 1;
+            final int rowFreeCount = this.freeMonsterSlots.getFreeCount(from, to);
+
+            if (rank < rowFreeCount) {
+                final int index = this.freeMonsterSlots.getFreeSlot(from, to, rank);
+                return Positions.of(index % this.size, y);
+            }
+
+            rank -= rowFreeCount;
+        }
+    }
+
+    private long getRandomSlot (final FreeSlotIndex freeSlots, final RandomSource random) {
+        if (freeSlots.getFreeCount() == 0) return Positions.NONE;
+
+        final int index = freeSlots.getFreeSlot(random.nextInt(freeSlots.getFreeCount()));
+        return Positions.of(index % this.size, index / this.size);
+    }
+
+    @Override
+    public char getDisplayText(final int x, final int y) {
+        return this.displayText[this.getIndex(x, y)];
+    }
+
+    @Override
+    public void setDisplayText(final int x, final int y, final char displayText) {
+        this.displayText[this.getIndex(x, y)] = displayText;
+    }
+
+}
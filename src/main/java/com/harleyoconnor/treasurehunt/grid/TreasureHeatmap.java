@@ -0,0 +1,167 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+
+/**
+ * Total value and count of the treasure left on a board, for answering questions about regions of the board, such as how much treasure
+ * is left near an element, without walking every element in the region. Held as a pair of two dimensional Fenwick trees, so taking a
+ * treasure item and querying any rectangle are both logarithmic time in the board size.
+ *
+ * Kept up to date by the board it belongs to. Methods are synchronized, so treasure can be taken from many threads while others query.
+ *
+ * @author Harley O'Connor
+ */
+public final class TreasureHeatmap {
+
+    private final int size;
+    /** Width of each row of the trees, which are one-based in both directions. */
+    private final int stride;
+    /** One-based Fenwick tree over the value of the untaken treasure in each element, indexed by (y + 1) * stride + x + 1. */
+    private final long[] valueTree;
+    /** One-based Fenwick tree over the number of untaken treasure items in each element, indexed as valueTree. */
+    private final int[] countTree;
+
+    /**
+     * Builds the heatmap of the treasure left on the given board, in linear time.
+     */
+    TreasureHeatmap (final ITreasureBoard board) {
+        this.size = board.getSize();
+        this.stride = this.size + 1;
+        this.valueTree = new long[this.stride * this.stride];
+        this.countTree = new int[this.stride * this.stride];
+
+        for (int y = 0; y < this.size; y++) {
+            for (int x = 0; x < this.size; x++) {
+                final ITreasureItem treasureItem = board.getTreasureItem(x, y);
+                if (treasureItem == null || board.isTreasureItemTaken(x, y)) continue;
+
+                final int index = (y + 1) * this.stride + x + 1;
+                this.valueTree[index] = treasureItem.getValue();
+                this.countTree[index] = 1;
+            }
+        }
+
+        // Push each node's total up to its parent along the rows, then along the columns.
+        for (int y = 1; y <= this.size; y++) {
+            for (int x = 1; x <= this.size; x++) {
+                final int parent = x + (x & -x);
+                if (parent > this.size) continue;
+
+                this.valueTree[y * this.stride + parent] += this.valueTree[y * this.stride + x];
+                this.countTree[y * this.stride + parent] += this.countTree[y * this.stride + x];
+            }
+        }
+
+        for (int y = 1; y <= this.size; y++) {
+            final int parent = y + (y & -y);
+            if (parent > this.size) continue;
+
+            for (int x = 1; x <= this.size; x++) {
+                this.valueTree[parent * this.stride + x] += this.valueTree[y * this.stride + x];
+                this.countTree[parent * this.stride + x] += this.countTree[y * this.stride + x];
+            }
+        }
+    }
+
+    /**
+     * Estimates how much memory the heatmap of a board of the given size takes up.
+     *
+     * @param size The width and height of the board.
+     * @return The estimated size of the heatmap's trees in bytes.
+     */
+    public static long getMemoryEstimate (final int size) {
+        return (long) (size + 1) * (size + 1) * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Adds to the treasure in an element, for example taking away a treasure item's value and a count of one once it's taken.
+     */
+    synchronized void add (final int x, final int y, final long value, final int count) {
+        for (int i = y + 1; i <= this.size; i += i & -i) {
+            for (int j = x + 1; j <= this.size; j += j & -j) {
+                this.valueTree[i * this.stride + j] += value;
+                this.countTree[i * this.stride + j] += count;
+            }
+        }
+    }
+
+    /**
+     * @return The total value of the untaken treasure in the rectangle between the given corners, inclusive.
+     */
+    public synchronized long getValue (final int minX, final int minY, final int maxX, final int maxY) {
+        this.checkRegion(minX, minY, maxX, maxY);
+        return this.getValueBefore(maxX + 1, maxY + 1) - this.getValueBefore(minX, maxY + 1) - this.getValueBefore(maxX + 1, minY)
+                + this.getValueBefore(minX, minY);
+    }
+
+    /**
+     * @return The number of untaken treasure items in the rectangle between the given corners, inclusive.
+     */
+    public synchronized int getCount (final int minX, final int minY, final int maxX, final int maxY) {
+        this.checkRegion(minX, minY, maxX, maxY);
+        return this.getCountBefore(maxX + 1, maxY + 1) - this.getCountBefore(minX, maxY + 1) - this.getCountBefore(maxX + 1, minY)
+                + this.getCountBefore(minX, minY);
+    }
+
+    /**
+     * @return The total value of the untaken treasure within the given number of elements of the given element, in any direction
+     *         (including diagonally). The region is cut off at the edges of the board.
+     */
+    public long getValueAround (final int x, final int y, final int radius) {
+        return this.getValue(Math.max(x - radius, 0), Math.max(y - radius, 0), Math.min(x + radius, this.size - 1), Math.min(y + radius, this.size - 1));
+    }
+
+    /**
+     * @return The number of untaken treasure items within the given number of elements of the given element, in any direction
+     *         (including diagonally). The region is cut off at the edges of the board.
+     */
+    public int getCountAround (final int x, final int y, final int radius) {
+        return this.getCount(Math.max(x - radius, 0), Math.max(y - radius, 0), Math.min(x + radius, this.size - 1), Math.min(y + radius, this.size - 1));
+    }
+
+    /**
+     * @return The total value of the untaken treasure on the board.
+     */
+    public synchronized long getTotalValue () {
+        return this.getValueBefore(this.size, this.size);
+    }
+
+    /**
+     * @return The number of untaken treasure items on the board.
+     */
+    public synchronized int getTotalCount () {
+        return this.getCountBefore(this.size, this.size);
+    }
+
+    /**
+     * @return The total value of the treasure in elements left of x and above y.
+     */
+    private long getValueBefore (final int x, final int y) {
+        long value = 0;
+
+        for (int i = y; i > 0; i -= i & -i)
+            for (int j = x; j > 0; j -= j & -j)
+                value += this.valueTree[i * this.stride + j];
+
+        return value;
+    }
+
+    /**
+     * @return The number of treasure items in elements left of x and above y.
+     */
+    private int getCountBefore (final int x, final int y) {
+        int count = 0;
+
+        for (int i = y; i > 0; i -= i & -i)
+            for (int j = x; j > 0; j -= j & -j)
+                count += this.countTree[i * this.stride + j];
+
+        return count;
+    }
+
+    private void checkRegion (final int minX, final int minY, final int maxX, final int maxY) {
+        if (minX < 0 || minY < 0 || maxX >= this.size || maxY >= this.size || minX > maxX || minY > maxY)
+            throw new IllegalArgumentException("Region " + minX + ", " + minY + " to " + maxX + ", " + maxY + " isn't on a board of size " + this.size + ".");
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+
+/**
+ * Guess strategy for computer players, which keeps a belief map of where treasure and monsters are likely to be and guesses the
+ * element with the highest expected value: the gold it's likely to find there, less the gold a monster there is likely to steal.
+ *
+ * The strategy only uses what a player can see. Before each guess it reads the result of its last guess from the board and works out
+ * whether a monster stole from it, by comparing the treasure it holds with what it held before. Searched elements show as such on the
+ * board, so it never guesses an element anyone has searched if it can find another.
+ *
+ * Each turn takes bounded time however large the board: rather than weighing every element, it weighs a fixed number of random ones
+ * nobody has searched. Treasure is placed uniformly, so elements only differ by how close they are to the board's edges, which monsters
+ * pass through less often, and how close they are to monsters it's seen, so a handful of random elements is enough to find a good one.
+ * Each weighing costs at most one lookup per sighting kept in the belief map.
+ *
+ * A strategy plays one game, from one thread, as it remembers its last guess.
+ *
+ * @author Harley O'Connor
+ */
+public final class BeliefGuessStrategy implements GuessStrategy {
+
+    /** Number of random elements nobody has searched to weigh each turn. */
+    private static final int CANDIDATES = 16;
+    /** Number of random elements to try to find candidates, before looking through the board in order instead. */
+    private static final int RANDOM_ATTEMPTS = CANDIDATES * 2;
+    /** Number of elements to look through in order for candidates, when most elements tried at random had been searched. */
+    private static final int SCAN_LIMIT = 256;
+
+    private final RandomSource random;
+    /** Expected value of a treasure item, in gold coins. */
+    private final double treasureValue;
+
+    private BeliefMap beliefs;
+    private long lastGuess = Positions.NONE;
+    /** Whether nobody had searched the element of the last guess, so what it shows now is what the guess found. */
+    private boolean lastGuessUnsearched;
+    private int lastTreasureCount;
+
+    /**
+     * @param random The random source to pick candidate elements with.
+     */
+    public BeliefGuessStrategy (final RandomSource random) {
+        this(random, TreasureItems.getRegistry());
+    }
+
+    /**
+     * @param random The random source to pick candidate elements with.
+     * @param treasureRegistry The treasure items the game places, for the expected value of a treasure item.
+     */
+    public BeliefGuessStrategy (final RandomSource random, final TreasureRegistry treasureRegistry) {
+        this.random = random;
+
+        double totalValue = 0;
+        double totalWeight = 0;
+
+        for (final ITreasureItem treasureItem : treasureRegistry.getTreasureItems()) {
+            totalValue += treasureItem.getValue() * treasureItem.getWeight();
+            totalWeight += treasureItem.getWeight();
+        }
+
+        this.treasureValue = totalWeight == 0 ? 1 : totalValue / totalWeight;
+    }
+
+    @Override
+    public long getGuess(final ITreasureBoard board, final Player player) {
+        if (this.beliefs == null) this.beliefs = new BeliefMap(board.getSize());
+
+        this.updateBeliefs(board, player);
+
+        final int size = board.getSize();
+        final int heldCount = player.getTreasureCount();
+        // What an item the player holds is worth, for how much a monster would take.
+        final double heldValue = heldCount == 0 ? 0 : (double) player.getGold() / heldCount;
+
+        long bestGuess = Positions.NONE;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int candidates = 0;
+
+        for (int attempt = 0; attempt < RANDOM_ATTEMPTS && candidates < CANDIDATES; attempt++) {
+            // One random long gives both coordinates, one from each half. The bias is at most the size over 2^32, which is nothing
+            // next to how rough picking candidates at random already is.
+            final long bits = this.random.nextLong();
+            final int x = (int) (((bits >>> 32) * size) >>> 32);
+            final int y = (int) (((bits & 0xFFFFFFFFL) * size) >>> 32);
+            if (board.getDisplayText(x, y) != ' ') continue;
+
+            candidates++;
+            final double value = this.getExpectedValue(x, y, heldCount, heldValue);
+
+            if (value > bestValue) {
+                bestValue = value;
+                bestGuess = Positions.of(x, y);
+            }
+        }
+
+        // Nearly every element has been searched, so look for the ones left in order from a random element.
+        if (candidates == 0) {
+            final int scanCount = (int) Math.min((long) size * size, SCAN_LIMIT);
+            int x = this.random.nextInt(size);
+            int y = this.random.nextInt(size);
+
+            for (int i = 0; i < scanCount && candidates < CANDIDATES; i++) {
+                if (board.getDisplayText(x, y) == ' ') {
+                    candidates++;
+                    final double value = this.getExpectedValue(x, y, heldCount, heldValue);
+
+                    if (value > bestValue) {
+                        bestValue = value;
+                        bestGuess = Positions.of(x, y);
+                    }
+                }
+
+                // Move along the row, wrapping onto the next row and from the bottom of the board back to the top.
+                if (++x == size) {
+                    x = 0;
+                    if (++y == size) y = 0;
+                }
+            }
+        }
+
+        // Everything looked at had been searched, so any guess is as good as another.
+        if (bestGuess == Positions.NONE) bestGuess = Positions.of(this.random.nextInt(size), this.random.nextInt(size));
+
+        this.lastGuess = bestGuess;
+        this.lastGuessUnsearched = candidates > 0;
+        this.lastTreasureCount = heldCount;
+        return bestGuess;
+    }
+
+    /**
+     * Reads the result of the last guess, and moves the belief map on a round.
+     */
+    private void updateBeliefs (final ITreasureBoard board, final Player player) {
+        if (this.lastGuess == Positions.NONE) return;
+
+        final int x = Positions.getX(this.lastGuess);
+        final int y = Positions.getY(this.lastGuess);
+        final boolean foundTreasure = this.lastGuessUnsearched && board.getDisplayText(x, y) == 'X';
+        if (this.lastGuessUnsearched) this.beliefs.recordGuess(foundTreasure);
+
+        // Monsters steal before treasure is found, so anything missing from what was held and found was stolen.
+        final int stolen = this.lastTreasureCount + (foundTreasure ? 1 : 0) - player.getTreasureCount();
+        if (stolen > 0) this.beliefs.recordSighting(x, y, stolen, stolen >= this.lastTreasureCount);
+
+        this.beliefs.nextRound();
+    }
+
+    /**
+     * @return The gold the player can expect to gain by guessing the given element, which nobody has searched.
+     */
+    private double getExpectedValue (final int x, final int y, final int heldCount, final double heldValue) {
+        final double treasureGain = this.beliefs.getTreasureProbability(x, y) * this.treasureValue;
+        if (heldCount == 0) return treasureGain;
+
+        final double expectedLoss = Math.min(this.beliefs.getExpectedSteal(x, y), heldCount) * heldValue;
+        return treasureGain - this.beliefs.getMonsterProbability(x, y) * expectedLoss;
+    }
+
+}
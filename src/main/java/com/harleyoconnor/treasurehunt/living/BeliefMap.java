@@ -0,0 +1,339 @@
+package com.harleyoconnor.treasurehunt.living;
+
+/**
+ * A computer player's beliefs about where untaken treasure and monsters are, built only from what the player can see: the results of
+ * its own guesses, and the items monsters steal from it.
+ *
+ * Treasure is placed uniformly, so the chance of finding treasure in an element nobody has searched is the same everywhere, apart from
+ * where monsters have been eating it. That chance is estimated from the treasure density a new board has, updated with how often the
+ * player's own guesses find treasure.
+ *
+ * Monsters that haven't been seen aren't spread evenly either. A monster moves to a random element within its stealth, and the board's
+ * edges cut that square short, so monsters pass through elements near the edges less often than the rest. Over time each unseen
+ * monster is in an element with a chance proportional to the number of other elements within reach of it, which also sets how quickly
+ * the element's treasure gets eaten. So from the first guess, elements near the edges are both more likely to hold treasure and less
+ * likely to hold a monster.
+ *
+ * Monsters are only seen when they steal from the player, which gives the monster's position and a lower bound on its stealth. Each
+ * round a monster moves to a random element within its stealth, so after some rounds it has spread out around where it was seen. The
+ * spread is modelled as a uniform square with the same variance as the monster's walk, which is cheap to evaluate for any element.
+ * Sightings are dropped once their square covers the board, as they no longer say anything about where the monster is.
+ *
+ * Nothing is stored per element, and at most MAX_SIGHTINGS sightings are kept, so the map takes the same small amount of memory and
+ * time to query on any board.
+ *
+ * @author Harley O'Connor
+ */
+final class BeliefMap {
+
+    /** The most sightings kept at once. The oldest is forgotten when another monster is seen. */
+    static final int MAX_SIGHTINGS = 8;
+
+    /** A new board holds between two and five treasure items per row, so three and a half on average. */
+    private static final double TREASURE_PER_ROW = 3.5;
+    /** How many guesses the expected treasure density counts for, against the player's own guesses. */
+    private static final double PRIOR_GUESSES = 20;
+    /** A new board has between three and five monsters. */
+    private static final double EXPECTED_MONSTERS = 4;
+
+    /** Unseen monsters only treat elements differently by how close they are to the edges, up to the highest stealth away. */
+    private static final int EDGE_DISTANCES = Monster.MAX_STEALTH + 1;
+
+    private final int boardSize;
+    private final double initialTreasureDensity;
+    /** The chance an unseen monster is in an element in any one round, by the element's distance from the edges in each direction. */
+    private final double[] unseenMonsterProbabilities = new double[EDGE_DISTANCES * EDGE_DISTANCES];
+    /** The share of the board's elements at each distance from the edges. */
+    private final double[] edgeShares = new double[EDGE_DISTANCES * EDGE_DISTANCES];
+    /** How much likelier treasure is to have survived unseen monsters than average, by distance from the edges. Updated each round. */
+    private final double[] unseenSurvival = new double[EDGE_DISTANCES * EDGE_DISTANCES];
+    /** Treasure survival by distance from the edges, against the elements unseen monsters visit least. */
+    private final double[] relativeSurvival = new double[EDGE_DISTANCES * EDGE_DISTANCES];
+    /** What relative survival is multiplied by each round while the number of unseen monsters stays the same. */
+    private final double[] relativeSurvivalDecay = new double[EDGE_DISTANCES * EDGE_DISTANCES];
+    /** The number of unseen monsters the decay was worked out for. */
+    private double decayUnseenMonsters = -1;
+
+    private int guesses;
+    private int treasureFound;
+
+    /** The number of rounds the player has seen, which sightings are timed by. */
+    private int round;
+
+    private final int[] sightingX = new int[MAX_SIGHTINGS];
+    private final int[] sightingY = new int[MAX_SIGHTINGS];
+    private final int[] sightingRound = new int[MAX_SIGHTINGS];
+    private final double[] sightingStealth = new double[MAX_SIGHTINGS];
+    /** How far each seen monster has spread by this round, and its chance of being in each element within that. */
+    private final double[] sightingSpread = new double[MAX_SIGHTINGS];
+    private final double[] sightingShare = new double[MAX_SIGHTINGS];
+    private int sightingCount;
+
+    BeliefMap (final int boardSize) {
+        this.boardSize = boardSize;
+        this.initialTreasureDensity = Math.min(TREASURE_PER_ROW / boardSize, 1);
+
+        // A monster moves to a uniformly random other element within its stealth, so in the long run it's in each element with a chance
+        // proportional to the number of moves it could make from there. Work that out for each stealth, and average over them.
+        for (int stealth = Monster.MIN_STEALTH; stealth <= Monster.MAX_STEALTH; stealth++) {
+            // Each row has the same total reach, which is the full width less what the edges cut off either side.
+            final double rowReach = boardSize > 2 * stealth ? (double) boardSize * (2 * stealth + 1) - stealth * (stealth + 1)
+                    : this.getRowReach(stealth);
+            final double totalMoves = rowReach * rowReach - (double) boardSize * boardSize;
+            if (totalMoves == 0) continue;
+
+            for (int dy = 0; dy < EDGE_DISTANCES; dy++)
+                for (int dx = 0; dx < EDGE_DISTANCES; dx++)
+                    this.unseenMonsterProbabilities[dy * EDGE_DISTANCES + dx] += (this.getReach(dx, stealth) * this.getReach(dy, stealth) - 1)
+                            / (totalMoves * (Monster.MAX_STEALTH - Monster.MIN_STEALTH + 1));
+        }
+
+        // Count the indexes of a row at each distance from its nearer end, the last distance taking everything further in.
+        final double[] counts = new double[EDGE_DISTANCES];
+        counts[EDGE_DISTANCES - 1] = boardSize;
+
+        for (int distance = 0; distance < EDGE_DISTANCES - 1; distance++) {
+            counts[distance] = distance < boardSize - 1 - distance ? 2 : distance == boardSize - 1 - distance ? 1 : 0;
+            counts[EDGE_DISTANCES - 1] -= counts[distance];
+        }
+
+        for (int dy = 0; dy < EDGE_DISTANCES; dy++)
+            for (int dx = 0; dx < EDGE_DISTANCES; dx++)
+                this.edgeShares[dy * EDGE_DISTANCES + dx] = counts[dx] * counts[dy] / ((double) boardSize * boardSize);
+
+        this.updateUnseenSurvival();
+    }
+
+    /**
+     * @return The total width of the squares a monster with the given stealth can reach from each element of a row, counted one by one.
+     */
+    private double getRowReach (final int stealth) {
+        double rowReach = 0;
+        for (int x = 0; x < this.boardSize; x++) rowReach += this.getReach(x, stealth);
+        return rowReach;
+    }
+
+    /**
+     * @return How many elements of a row or column a monster with the given stealth can reach from the given index, including its own.
+     */
+    private int getReach (final int index, final int stealth) {
+        return Math.min(index + stealth, this.boardSize - 1) - Math.max(index - stealth, 0) + 1;
+    }
+
+    /**
+     * @return The index of the given element in the tables kept by distance from the edges.
+     */
+    private int getEdgeIndex (final int x, final int y) {
+        final int dx = Math.min(Math.min(x, this.boardSize - 1 - x), EDGE_DISTANCES - 1);
+        final int dy = Math.min(Math.min(y, this.boardSize - 1 - y), EDGE_DISTANCES - 1);
+        return dy * EDGE_DISTANCES + dx;
+    }
+
+    /**
+     * @return The number of monsters which haven't been seen, or whose sightings have been forgotten.
+     */
+    private double getUnseenMonsters () {
+        return Math.max(EXPECTED_MONSTERS - this.sightingCount, 0);
+    }
+
+    /**
+     * Works out how much likelier treasure is to have survived the unseen monsters in elements at each distance from the edges than on
+     * the board as a whole. Each round an unseen monster leaves an element, eating its treasure, with the chance it's there.
+     */
+    private void updateUnseenSurvival () {
+        final double unseenMonsters = this.getUnseenMonsters();
+
+        // Measure survival against the elements monsters visit least, so it can't overflow however long the game goes on.
+        double leastProbability = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < this.unseenSurvival.length; i++)
+            if (this.edgeShares[i] > 0) leastProbability = Math.min(leastProbability, this.unseenMonsterProbabilities[i]);
+
+        for (int i = 0; i < this.unseenSurvival.length; i++) {
+            // Small boards don't have elements at every distance from the edges.
+            if (this.edgeShares[i] == 0) continue;
+
+            final double excessProbability = this.unseenMonsterProbabilities[i] - leastProbability;
+            this.relativeSurvivalDecay[i] = Math.exp(-unseenMonsters * excessProbability);
+            this.relativeSurvival[i] = Math.exp(-unseenMonsters * this.round * excessProbability);
+        }
+
+        this.decayUnseenMonsters = unseenMonsters;
+        this.normaliseUnseenSurvival();
+    }
+
+    /**
+     * Moves unseen survival on a round. While the number of unseen monsters stays the same, this is one multiplication per distance
+     * from the edges rather than working it out again.
+     */
+    private void advanceUnseenSurvival () {
+        if (this.getUnseenMonsters() != this.decayUnseenMonsters) {
+            this.updateUnseenSurvival();
+            return;
+        }
+
+        for (int i = 0; i < this.unseenSurvival.length; i++)
+            this.relativeSurvival[i] *= this.relativeSurvivalDecay[i];
+
+        this.normaliseUnseenSurvival();
+    }
+
+    private void normaliseUnseenSurvival () {
+        double averageSurvival = 0;
+        for (int i = 0; i < this.unseenSurvival.length; i++)
+            averageSurvival += this.edgeShares[i] * this.relativeSurvival[i];
+
+        for (int i = 0; i < this.unseenSurvival.length; i++)
+            this.unseenSurvival[i] = this.relativeSurvival[i] / averageSurvival;
+    }
+
+    /**
+     * Moves on to the next round, forgetting sightings of monsters which could be anywhere by now.
+     */
+    void nextRound () {
+        this.round++;
+
+        for (int i = this.sightingCount - 1; i >= 0; i--) {
+            this.updateSpread(i);
+            if (2 * this.sightingSpread[i] + 1 >= this.boardSize) this.removeSighting(i);
+        }
+
+        this.advanceUnseenSurvival();
+    }
+
+    /**
+     * Records the result of one of the player's own guesses on an element nobody had searched.
+     */
+    void recordGuess (final boolean foundTreasure) {
+        this.guesses++;
+        if (foundTreasure) this.treasureFound++;
+    }
+
+    /**
+     * Records a monster seen in the given element this round, having stolen the given number of items.
+     *
+     * @param stolen The number of items the monster stole.
+     * @param heldAll Whether the monster stole every item the player held, so could have stolen more.
+     */
+    void recordSighting (final int x, final int y, final int stolen, final boolean heldAll) {
+        // A sighting close enough to an older one is probably the same monster, which has moved on since.
+        for (int i = this.sightingCount - 1; i >= 0; i--) {
+            final double spread = this.sightingSpread[i];
+            if (Math.abs(x - this.sightingX[i]) <= spread && Math.abs(y - this.sightingY[i]) <= spread) this.removeSighting(i);
+        }
+
+        if (this.sightingCount == MAX_SIGHTINGS) this.removeSighting(0);
+
+        this.sightingX[this.sightingCount] = x;
+        this.sightingY[this.sightingCount] = y;
+        this.sightingRound[this.sightingCount] = this.round;
+        this.sightingStealth[this.sightingCount] = getExpectedStealth(stolen, heldAll);
+        this.updateSpread(this.sightingCount);
+        this.sightingCount++;
+        this.updateUnseenSurvival();
+    }
+
+    /**
+     * Gets the expected stealth of a monster, given what it stole. Stealth is uniform to start with, and a monster steals a uniform
+     * number of items up to its stealth, or as many as the player holds if that's fewer.
+     */
+    private static double getExpectedStealth (final int stolen, final boolean heldAll) {
+        double total = 0;
+        double weight = 0;
+
+        for (int stealth = Math.max(stolen, Monster.MIN_STEALTH); stealth <= Monster.MAX_STEALTH; stealth++) {
+            // How likely a monster with this stealth was to steal what it did.
+            final double likelihood = heldAll ? (double) (stealth - stolen + 1) / stealth : 1.0 / stealth;
+            total += stealth * likelihood;
+            weight += likelihood;
+        }
+
+        return weight == 0 ? Monster.MAX_STEALTH : total / weight;
+    }
+
+    /**
+     * @return The chance an element nobody has searched holds treasure.
+     */
+    double getTreasureProbability (final int x, final int y) {
+        double probability = (this.treasureFound + this.initialTreasureDensity * PRIOR_GUESSES) / (this.guesses + PRIOR_GUESSES);
+
+        // That's the chance over the whole board. Unseen monsters have eaten more than their share of the treasure away from the edges and
+        // less near them, so scale it by how much more or less likely this element's treasure is to have survived them than average.
+        probability *= this.unseenSurvival[this.getEdgeIndex(x, y)];
+
+        // Monsters eat the treasure in each element they leave, so take off the share of the rounds each seen monster spent here.
+        for (int i = 0; i < this.sightingCount; i++) {
+            final int rounds = this.round - this.sightingRound[i];
+            probability *= 1 - Math.min(rounds * this.getSightingProbability(i, x, y), 1);
+        }
+
+        return probability;
+    }
+
+    /**
+     * @return The expected number of monsters in the given element.
+     */
+    double getMonsterProbability (final int x, final int y) {
+        double probability = this.getUnseenMonsters() * this.unseenMonsterProbabilities[this.getEdgeIndex(x, y)];
+
+        for (int i = 0; i < this.sightingCount; i++)
+            probability += this.getSightingProbability(i, x, y);
+
+        return probability;
+    }
+
+    /**
+     * @return The expected number of items a monster in the given element would steal from a player with an endless supply.
+     */
+    double getExpectedSteal (final int x, final int y) {
+        double expectedSteal = 0;
+        double probability = 0;
+
+        for (int i = 0; i < this.sightingCount; i++) {
+            final double sightingProbability = this.getSightingProbability(i, x, y);
+            expectedSteal += sightingProbability * (1 + this.sightingStealth[i]) / 2;
+            probability += sightingProbability;
+        }
+
+        // An unseen monster has uniform stealth, and steals a uniform number of items up to it.
+        final double unseenSteal = (1 + (Monster.MIN_STEALTH + Monster.MAX_STEALTH) / 2.0) / 2;
+        return probability == 0 ? unseenSteal : expectedSteal / probability;
+    }
+
+    /**
+     * @return The chance the monster of the given sighting is in the given element now.
+     */
+    private double getSightingProbability (final int sighting, final int x, final int y) {
+        final double spread = this.sightingSpread[sighting];
+        return Math.abs(x - this.sightingX[sighting]) > spread || Math.abs(y - this.sightingY[sighting]) > spread ? 0 : this.sightingShare[sighting];
+    }
+
+    /**
+     * Works out how far the monster of the given sighting has spread from where it was seen by this round, as the half width of a
+     * uniform square. Each move is uniform within the monster's stealth, which has the same variance as a square with the stealth as its
+     * half width, and the variance of the monster's walk grows with the number of moves, so the half width grows with the square root of
+     * the moves. Done once a round, as every element weighed asks about every sighting.
+     */
+    private void updateSpread (final int sighting) {
+        final double spread = this.sightingStealth[sighting] * Math.sqrt(this.round - this.sightingRound[sighting]);
+
+        // The monster can't have left the board, so spread its chance over the part of the square that's on it.
+        final int reach = (int) spread;
+        final int width = Math.min(this.sightingX[sighting] + reach, this.boardSize - 1) - Math.max(this.sightingX[sighting] - reach, 0) + 1;
+        final int height = Math.min(this.sightingY[sighting] + reach, this.boardSize - 1) - Math.max(this.sightingY[sighting] - reach, 0) + 1;
+
+        this.sightingSpread[sighting] = spread;
+        this.sightingShare[sighting] = 1.0 / ((double) width * height);
+    }
+
+    private void removeSighting (final int sighting) {
+        final int moved = this.sightingCount - sighting - 1;
+        System.arraycopy(this.sightingX, sighting + 1, this.sightingX, sighting, moved);
+        System.arraycopy(this.sightingY, sighting + 1, this.sightingY, sighting, moved);
+        System.arraycopy(this.sightingRound, sighting + 1, this.sightingRound, sighting, moved);
+        System.arraycopy(this.sightingStealth, sighting + 1, this.sightingStealth, sighting, moved);
+        System.arraycopy(this.sightingSpread, sighting + 1, this.sightingSpread, sighting, moved);
+        System.arraycopy(this.sightingShare, sighting + 1, this.sightingShare, sighting, moved);
+        this.sightingCount--;
+    }
+
+}
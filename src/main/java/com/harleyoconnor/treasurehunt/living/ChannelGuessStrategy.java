@@ -0,0 +1,43 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+
+/**
+ * Guess strategy for human players, which asks for each guess on the player's channel.
+ *
+ * @author Harley O'Connor
+ */
+public final class ChannelGuessStrategy implements GuessStrategy {
+
+    /** Guess strategy for a player at the local console. */
+    public static final ChannelGuessStrategy CONSOLE = new ChannelGuessStrategy(ConsolePlayerChannel.INSTANCE, "\nGuess a position (for example, A1 would be the first position). ");
+
+    private final PlayerChannel channel;
+    private final String prompt;
+
+    /**
+     * @param channel The channel to read guesses from.
+     * @param prompt The prompt shown before each guess is read.
+     */
+    public ChannelGuessStrategy (final PlayerChannel channel, final String prompt) {
+        this.channel = channel;
+        this.prompt = prompt;
+    }
+
+    @Override
+    public long getGuess(final ITreasureBoard board, final Player player) {
+        long guessPosition;
+
+        // Get guess position until it is a valid position on the grid.
+        do {
+            final String line = this.channel.readLine(this.prompt);
+            if (line == null) throw new PlayerDisconnectedException(player.getName());
+
+            guessPosition = board.getElementPosition(line);
+        } while (guessPosition == Positions.NONE);
+
+        return guessPosition;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.javautilities.InputUtils;
+
+import java.io.PrintStream;
+
+/**
+ * Player channel for the local console, reading from standard input and printing to standard output.
+ *
+ * @author Harley O'Connor
+ */
+public final class ConsolePlayerChannel implements PlayerChannel {
+
+    public static final ConsolePlayerChannel INSTANCE = new ConsolePlayerChannel();
+
+    private ConsolePlayerChannel() {}
+
+    @Override
+    public String readLine(final String prompt) {
+        return InputUtils.getInput(prompt);
+    }
+
+    @Override
+    public PrintStream getOutput() {
+        return System.out;
+    }
+
+}
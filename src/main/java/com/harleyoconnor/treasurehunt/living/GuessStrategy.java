@@ -0,0 +1,23 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+
+/**
+ * Decides where a player guesses each turn. Humans use ChannelGuessStrategy.CONSOLE, simulated players can use any other
+ * implementation.
+ *
+ * @author Harley O'Connor
+ */
+@FunctionalInterface
+public interface GuessStrategy {
+
+    /**
+     * Gets the player's next guess.
+     *
+     * @param board The board being played on.
+     * @param player The player guessing.
+     * @return The position of the guess, packed with Positions, which must be on the board.
+     */
+    long getGuess(ITreasureBoard board, Player player);
+
+}
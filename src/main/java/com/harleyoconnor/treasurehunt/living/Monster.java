@@ -1,6 +1,6 @@
 package com.harleyoconnor.treasurehunt.living;
 
-import com.harleyoconnor.javautilities.IntegerUtils;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
 
 /**
  * The monster object. Stores data about their stealth and their current position.
@@ -9,14 +9,60 @@ import com.harleyoconnor.javautilities.IntegerUtils;
  */
 public final class Monster {
 
+    /** The lowest and highest stealth a monster can have. */
+    public static final int MIN_STEALTH = 1;
+    public static final int MAX_STEALTH = 4;
+
+    /**
+     * Unique id of the monster within its game, starting at 0.
+     */
+    private final int id;
+
     /**
      * Stealth is the monster's strength. The higher this value, the more items they have a chance of taking when landing on them, and the
      * more distance they can move in a single turn.
      */
-    private final int stealth = IntegerUtils.getRandomIntBetween(1, 4);
+    private final int stealth;
+
+    private int x;
+    private int y;
+
+    /**
+     * @param id The id of the monster within its game.
+     * @param random The random source to draw the monster's stealth from.
+     */
+    public Monster (final int id, final RandomSource random) {
+        this(id, random.nextIntBetween(MIN_STEALTH, MAX_STEALTH));
+    }
+
+    /**
+     * @param id The id of the monster within its game.
+     * @param stealth The monster's stealth, between MIN_STEALTH and MAX_STEALTH.
+     */
+    public Monster (final int id, final int stealth) {
+        this.id = id;
+        this.stealth = stealth;
+    }
+
+    public int getId() {
+        return this.id;
+    }
 
     public int getStealth() {
         return this.stealth;
     }
 
+    public int getX() {
+        return this.x;
+    }
+
+    public int getY() {
+        return this.y;
+    }
+
+    public void setPosition (final int x, final int y) {
+        this.x = x;
+        this.y = y;
+    }
+
 }
@@ -1,30 +1,147 @@
 package com.harleyoconnor.treasurehunt.living;
 
+import com.harleyoconnor.treasurehunt.random.RandomSource;
 import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
 
-import java.util.ArrayList;
-import java.util.List;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
 
 /**
- * The player object. Stores their name and the treasure they have found.
+ * The player object. Stores their name, how they guess, and the treasure they have found.
+ *
+ * Found treasure is kept as a count per treasure item id and a running gold total, plus an unordered array of the id of every item held
+ * so a random item can be stolen in constant time. Only ids are stored, so items are handed back by looking them up in the registry of
+ * the game the player is in.
  *
  * @author Harley O'Connor
  */
 public final class Player {
 
     private final String name;
-    private final List<ITreasureItem> foundTreasure = new ArrayList<>();
+    private final GuessStrategy guessStrategy;
+
+    /** The id of every treasure item held, one entry per item, in no particular order. */
+    private int[] heldTreasure = new int[8];
+    private int heldTreasureCount;
+    /** Number of each treasure item held, indexed by treasure item id. */
+    private int[] treasureCounts = new int[8];
+    /** The id of each distinct treasure item held, in no particular order. */
+    private int[] distinctTreasure = new int[8];
+    private int distinctTreasureCount;
+    /** Index of each treasure item in distinctTreasure, indexed by treasure item id. Only valid while the item is held. */
+    private int[] distinctTreasureIndexes = new int[8];
+    private long gold;
 
     public Player (final String name) {
+        this(name, ChannelGuessStrategy.CONSOLE);
+    }
+
+    public Player (final String name, final GuessStrategy guessStrategy) {
         this.name = name;
+        this.guessStrategy = guessStrategy;
     }
 
     public String getName() {
         return name;
     }
 
-    public List<ITreasureItem> getFoundTreasure() {
-        return foundTreasure;
+    public GuessStrategy getGuessStrategy() {
+        return guessStrategy;
+    }
+
+    /**
+     * Gives the player a treasure item they found.
+     */
+    public void addTreasure (final ITreasureItem treasureItem) {
+        final int id = treasureItem.getId();
+
+        if (this.heldTreasureCount == this.heldTreasure.length) this.heldTreasure = Arrays.copyOf(this.heldTreasure, this.heldTreasureCount * 2);
+        this.heldTreasure[this.heldTreasureCount++] = id;
+
+        if (id >= this.treasureCounts.length) {
+            final int length = Math.max(id + 1, this.treasureCounts.length * 2);
+            this.treasureCounts = Arrays.copyOf(this.treasureCounts, length);
+            this.distinctTreasureIndexes = Arrays.copyOf(this.distinctTreasureIndexes, length);
+        }
+
+        if (this.treasureCounts[id]++ == 0) {
+            if (this.distinctTreasureCount == this.distinctTreasure.length) this.distinctTreasure = Arrays.copyOf(this.distinctTreasure, this.distinctTreasureCount * 2);
+            this.distinctTreasureIndexes[id] = this.distinctTreasureCount;
+            this.distinctTreasure[this.distinctTreasureCount++] = id;
+        }
+
+        this.gold += treasureItem.getValue();
+    }
+
+    /**
+     * Takes a random treasure item from the player. Each item held is equally likely, so items the player holds more of are more
+     * likely to be taken.
+     *
+     * @param treasureRegistry The treasure registry of the player's game.
+     * @param random The random source to draw from.
+     * @return The treasure item taken, or null if the player has no treasure.
+     */
+    @Nullable
+    public ITreasureItem stealRandomTreasure (final TreasureRegistry treasureRegistry, final RandomSource random) {
+        if (this.heldTreasureCount == 0) return null;
+
+        // Swap the chosen item with the last one, and drop the last one.
+        final int index = random.nextInt(this.heldTreasureCount);
+        final int id = this.heldTreasure[index];
+        this.heldTreasure[index] = this.heldTreasure[--this.heldTreasureCount];
+
+        if (--this.treasureCounts[id] == 0) {
+            // Likewise remove the item from the distinct items, moving the last one into its place.
+            final int distinctIndex = this.distinctTreasureIndexes[id];
+            final int lastId = this.distinctTreasure[--this.distinctTreasureCount];
+            this.distinctTreasure[distinctIndex] = lastId;
+            this.distinctTreasureIndexes[lastId] = distinctIndex;
+        }
+
+        final ITreasureItem treasureItem = treasureRegistry.get(id);
+        this.gold -= treasureItem.getValue();
+        return treasureItem;
+    }
+
+    /**
+     * @return The number of treasure items the player holds.
+     */
+    public int getTreasureCount() {
+        return this.heldTreasureCount;
+    }
+
+    /**
+     * @return The number of distinct treasure items the player holds.
+     */
+    public int getDistinctTreasureCount() {
+        return this.distinctTreasureCount;
+    }
+
+    /**
+     * @param id The treasure item id.
+     * @return How many of the treasure item the player holds.
+     */
+    public int getTreasureCount (final int id) {
+        return id < this.treasureCounts.length ? this.treasureCounts[id] : 0;
+    }
+
+    /**
+     * Calls the consumer with each distinct treasure item the player holds and how many of it they hold, in no particular order.
+     *
+     * @param treasureRegistry The treasure registry of the player's game.
+     */
+    public void forEachTreasure (final TreasureRegistry treasureRegistry, final ObjIntConsumer<ITreasureItem> consumer) {
+        for (int i = 0; i < this.distinctTreasureCount; i++)
+            consumer.accept(treasureRegistry.get(this.distinctTreasure[i]), this.treasureCounts[this.distinctTreasure[i]]);
+    }
+
+    /**
+     * @return The total value of the treasure the player currently holds, in gold coins.
+     */
+    public long getGold() {
+        return this.gold;
     }
 
 }
@@ -0,0 +1,27 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import javax.annotation.Nullable;
+import java.io.PrintStream;
+
+/**
+ * Where a player's input comes from and their output goes to, such as the console or a network connection.
+ *
+ * @author Harley O'Connor
+ */
+public interface PlayerChannel {
+
+    /**
+     * Shows the prompt to the player and waits for them to enter a line.
+     *
+     * @param prompt The prompt to show.
+     * @return The line entered, or null if the player has disconnected.
+     */
+    @Nullable
+    String readLine(String prompt);
+
+    /**
+     * @return The stream to print output for the player to.
+     */
+    PrintStream getOutput();
+
+}
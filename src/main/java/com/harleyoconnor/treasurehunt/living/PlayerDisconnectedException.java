@@ -0,0 +1,16 @@
+package com.harleyoconnor.treasurehunt.living;
+
+/**
+ * Thrown when a player's channel closes while the game is waiting on them.
+ *
+ * @author Harley O'Connor
+ */
+public final class PlayerDisconnectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PlayerDisconnectedException (final String playerName) {
+        super(playerName + " disconnected.");
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+
+/**
+ * Guess strategy which picks a uniformly random position each turn. Used as a baseline for simulations.
+ *
+ * @author Harley O'Connor
+ */
+public final class RandomGuessStrategy implements GuessStrategy {
+
+    private final RandomSource random;
+
+    public RandomGuessStrategy (final RandomSource random) {
+        this.random = random;
+    }
+
+    @Override
+    public long getGuess(final ITreasureBoard board, final Player player) {
+        return Positions.of(this.random.nextInt(board.getSize()), this.random.nextInt(board.getSize()));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Guess strategy which plays a fixed list of guesses in order, looping back to the start once they are used up. Used to drive games
+ * without input, for example in benchmarks.
+ *
+ * @author Harley O'Connor
+ */
+public final class ScriptedGuessStrategy implements GuessStrategy {
+
+    /** Positions to guess, packed with Positions. */
+    private final long[] guesses;
+    private int nextGuess;
+
+    /**
+     * @param guesses The positions to guess, packed with Positions, in order. Must not be empty.
+     */
+    public ScriptedGuessStrategy (final long[] guesses) {
+        if (guesses.length == 0) throw new IllegalArgumentException("Scripted guess strategy needs at least one guess.");
+
+        this.guesses = Arrays.copyOf(guesses, guesses.length);
+    }
+
+    /**
+     * Reads a script of guesses from a file of position labels such as B7, separated by whitespace or commas. The whole file is parsed in
+     * one pass, without creating a string for each label.
+     *
+     * @param file The script file.
+     * @param boardSize The width and height of the board the guesses are for.
+     * @return The strategy.
+     * @throws IOException If the file couldn't be read.
+     * @throws IllegalArgumentException If a label isn't a position on the board, or there are no labels.
+     */
+    public static ScriptedGuessStrategy read (final File file, final int boardSize) throws IOException {
+        // Labels are plain ASCII, so decode the file straight into a character buffer to parse.
+        return new ScriptedGuessStrategy(Positions.parseAll(StandardCharsets.US_ASCII.decode(ByteBuffer.wrap(Files.readAllBytes(file.toPath()))), boardSize));
+    }
+
+    @Override
+    public long getGuess(final ITreasureBoard board, final Player player) {
+        final long guess = this.guesses[this.nextGuess];
+        this.nextGuess = (this.nextGuess + 1) % this.guesses.length;
+        return guess;
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.harleyoconnor.treasurehunt.metrics;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters and timers for games. Metrics are opt-in: games look up the instance once when created and skip all recording
+ * if metrics aren't enabled, so disabled metrics cost a null check. Recording never allocates and is safe from any thread.
+ *
+ * Metrics are enabled by setting the 'treasurehunt.metrics' system property to true, or 'treasurehunt.metrics.dump' to a file that a
+ * text dump is written to every 'treasurehunt.metrics.interval' seconds (10 by default). Enabled metrics are also registered with JMX
+ * as com.harleyoconnor.treasurehunt:type=GameMetrics.
+ *
+ * @author Harley O'Connor
+ */
+public final class GameMetrics implements GameMetricsMBean {
+
+    private static final String OBJECT_NAME = "com.harleyoconnor.treasurehunt:type=GameMetrics";
+
+    @Nullable
+    private static volatile GameMetrics instance;
+
+    private final LatencyHistogram generationTime = new LatencyHistogram();
+    private final LongAdder treasurePlaced = new LongAdder();
+    private final LongAdder treasurePlacementFailures = new LongAdder();
+    private final LatencyHistogram guessLatency = new LatencyHistogram();
+    private final LongAdder monsterMoves = new LongAdder();
+    private final LongAdder monsterMovesBlocked = new LongAdder();
+    private final LongAdder treasureEaten = new LongAdder();
+    private final LongAdder itemsStolen = new LongAdder();
+
+    private GameMetrics() {}
+
+    /**
+     * Enables metrics if the system properties ask for them, starting the text dump if a dump file is given.
+     */
+    public static void configure () {
+        final String dumpFile = System.getProperty("treasurehunt.metrics.dump");
+
+        if (dumpFile != null) {
+            MetricsDump.start(enable(), new File(dumpFile), Long.getLong("treasurehunt.metrics.interval", 10), TimeUnit.SECONDS);
+        } else if (Boolean.getBoolean("treasurehunt.metrics")) {
+            enable();
+        }
+    }
+
+    /**
+     * Enables metrics for games created from now on, registering them with JMX. Does nothing if they are already enabled.
+     *
+     * @return The metrics.
+     */
+    public static synchronized GameMetrics enable () {
+        if (instance != null) return instance;
+
+        final GameMetrics metrics = new GameMetrics();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Could not register game metrics with JMX: " + e.getMessage());
+        }
+
+        return instance = metrics;
+    }
+
+    /**
+     * @return The metrics, or null if they aren't enabled.
+     */
+    @Nullable
+    public static GameMetrics get () {
+        return instance;
+    }
+
+    /**
+     * @param nanos The time taken to generate a game's board, treasure and monsters.
+     */
+    public void recordGeneration (final long nanos) {
+        this.generationTime.record(nanos);
+    }
+
+    /**
+     * @param placed The number of treasure items placed on a new board.
+     * @param failures The number of treasure items that couldn't be placed because the board was full.
+     */
+    public void recordTreasurePlacement (final int placed, final int failures) {
+        this.treasurePlaced.add(placed);
+        if (failures > 0) this.treasurePlacementFailures.add(failures);
+    }
+
+    /**
+     * @param nanos The time the game took to handle a guess, not counting the time taken to make it.
+     */
+    public void recordGuess (final long nanos) {
+        this.guessLatency.record(nanos);
+    }
+
+    /**
+     * @param moved False if the monster had nowhere to move to, and stayed where it was.
+     */
+    public void recordMonsterMove (final boolean moved) {
+        this.monsterMoves.increment();
+        if (!moved) this.monsterMovesBlocked.increment();
+    }
+
+    public void recordTreasureEaten () {
+        this.treasureEaten.increment();
+    }
+
+    public void recordItemsStolen (final int count) {
+        this.itemsStolen.add(count);
+    }
+
+    @Override
+    public long getGamesGenerated () {
+        return this.generationTime.getCount();
+    }
+
+    @Override
+    public long getGenerationTimeMeanNanos () {
+        return Math.round(this.generationTime.getMean());
+    }
+
+    @Override
+    public long getGenerationTimeP99Nanos () {
+        return this.generationTime.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getGenerationTimeMaxNanos () {
+        return this.generationTime.getMax();
+    }
+
+    @Override
+    public long getTreasurePlaced () {
+        return this.treasurePlaced.sum();
+    }
+
+    @Override
+    public long getTreasurePlacementFailures () {
+        return this.treasurePlacementFailures.sum();
+    }
+
+    @Override
+    public long getGuesses () {
+        return this.guessLatency.getCount();
+    }
+
+    @Override
+    public long getGuessLatencyP50Nanos () {
+        return this.guessLatency.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getGuessLatencyP99Nanos () {
+        return this.guessLatency.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getGuessLatencyMaxNanos () {
+        return this.guessLatency.getMax();
+    }
+
+    @Override
+    public long getMonsterMoves () {
+        return this.monsterMoves.sum();
+    }
+
+    @Override
+    public long getMonsterMovesBlocked () {
+        return this.monsterMovesBlocked.sum();
+    }
+
+    @Override
+    public long getTreasureEaten () {
+        return this.treasureEaten.sum();
+    }
+
+    @Override
+    public long getItemsStolen () {
+        return this.itemsStolen.sum();
+    }
+
+    /**
+     * Appends the metrics in the Prometheus text format, one 'name value' per line, with quantiles as labels.
+     */
+    public StringBuilder appendText (final StringBuilder builder) {
+        appendHistogram(builder, "treasurehunt_generation_nanos", this.generationTime);
+        appendCounter(builder, "treasurehunt_treasure_placed_total", this.getTreasurePlaced());
+        appendCounter(builder, "treasurehunt_treasure_placement_failures_total", this.getTreasurePlacementFailures());
+        appendHistogram(builder, "treasurehunt_guess_nanos", this.guessLatency);
+        appendCounter(builder, "treasurehunt_monster_moves_total", this.getMonsterMoves());
+        appendCounter(builder, "treasurehunt_monster_moves_blocked_total", this.getMonsterMovesBlocked());
+        appendCounter(builder, "treasurehunt_treasure_eaten_total", this.getTreasureEaten());
+        return appendCounter(builder, "treasurehunt_items_stolen_total", this.getItemsStolen());
+    }
+
+    private static StringBuilder appendCounter (final StringBuilder builder, final String name, final long value) {
+        return builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void appendHistogram (final StringBuilder builder, final String name, final LatencyHistogram histogram) {
+        for (final double quantile : new double[] {0.5, 0.9, 0.99, 0.999})
+            builder.append(name).append("{quantile=\"").append(quantile).append("\"} ").append(histogram.getValueAtPercentile(quantile * 100)).append('\n');
+
+        appendCounter(builder, name + "_max", histogram.getMax());
+        appendCounter(builder, name + "_sum", histogram.getTotal());
+        appendCounter(builder, name + "_count", histogram.getCount());
+    }
+
+    @Override
+    public String toString () {
+        return this.appendText(new StringBuilder()).toString();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.harleyoconnor.treasurehunt.metrics;
+
+/**
+ * JMX view of the game metrics. Times are in nanoseconds.
+ *
+ * @author Harley O'Connor
+ */
+public interface GameMetricsMBean {
+
+    long getGamesGenerated();
+
+    long getGenerationTimeMeanNanos();
+
+    long getGenerationTimeP99Nanos();
+
+    long getGenerationTimeMaxNanos();
+
+    long getTreasurePlaced();
+
+    long getTreasurePlacementFailures();
+
+    long getGuesses();
+
+    long getGuessLatencyP50Nanos();
+
+    long getGuessLatencyP99Nanos();
+
+    long getGuessLatencyMaxNanos();
+
+    long getMonsterMoves();
+
+    long getMonsterMovesBlocked();
+
+    long getTreasureEaten();
+
+    long getItemsStolen();
+
+}
@@ -0,0 +1,98 @@
+package com.harleyoconnor.treasurehunt.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of non-negative values, such as durations in nanoseconds, with log-linear buckets in the style of
+ * HdrHistogram. Each power of two is split into 16 buckets, so recorded values are kept to within about 6%, and recording never
+ * allocates.
+ *
+ * @author Harley O'Connor
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** Values below the sub bucket count get a bucket each, then every power of two up to 2^62 gets the sub bucket count. */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     */
+    public void record (long value) {
+        if (value < 0) value = 0;
+
+        this.buckets.incrementAndGet(getBucket(value));
+        this.count.increment();
+        this.total.add(value);
+
+        long currentMax = this.max.get();
+        while (value > currentMax && !this.max.compareAndSet(currentMax, value)) currentMax = this.max.get();
+    }
+
+    private static int getBucket (final long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+
+        // The shift keeps the leading one bit and the sub bucket bits below it.
+        final int shift = Long.SIZE - SUB_BUCKET_BITS - 1 - Long.numberOfLeadingZeros(value);
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * @return The highest value that falls in the given bucket.
+     */
+    private static long getBucketHighestValue (final int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+
+        final int shift = bucket / SUB_BUCKET_COUNT - 1;
+        return ((long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift) + (1L << shift) - 1;
+    }
+
+    public long getCount () {
+        return this.count.sum();
+    }
+
+    public long getTotal () {
+        return this.total.sum();
+    }
+
+    public long getMax () {
+        return this.max.get();
+    }
+
+    public double getMean () {
+        final long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotal() / count;
+    }
+
+    /**
+     * Gets the value at the given percentile. Concurrent recording may be partly included.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value of the bucket holding the percentile, capped to the maximum recorded value, or 0 if nothing has been
+     *         recorded.
+     */
+    public long getValueAtPercentile (final double percentile) {
+        long bucketTotal = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) bucketTotal += this.buckets.get(i);
+        if (bucketTotal == 0) return 0;
+
+        final long rank = Math.max(1, (long) Math.ceil(bucketTotal * Math.min(percentile, 100) / 100));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) return Math.min(getBucketHighestValue(i), this.getMax());
+        }
+
+        return this.getMax();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.harleyoconnor.treasurehunt.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the metrics as text to a file, so they can be scraped locally. Each dump is written to a temporary file and moved
+ * into place, so a reader never sees a partly written dump.
+ *
+ * @author Harley O'Connor
+ */
+final class MetricsDump implements Runnable {
+
+    private final GameMetrics metrics;
+    private final Path path;
+
+    private MetricsDump(final GameMetrics metrics, final Path path) {
+        this.metrics = metrics;
+        this.path = path;
+    }
+
+    /**
+     * Starts dumping the metrics on a daemon thread, which runs until the process exits.
+     */
+    static void start (final GameMetrics metrics, final File file, final long interval, final TimeUnit unit) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "treasure-hunt-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.scheduleAtFixedRate(new MetricsDump(metrics, file.toPath().toAbsolutePath()), interval, interval, unit);
+    }
+
+    @Override
+    public void run () {
+        try {
+            final byte[] text = this.metrics.toString().getBytes(StandardCharsets.UTF_8);
+
+            Files.createDirectories(this.path.getParent());
+            final Path temporaryPath = Files.createTempFile(this.path.getParent(), this.path.getFileName().toString(), ".tmp");
+
+            try {
+                Files.write(temporaryPath, text);
+                Files.move(temporaryPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+        } catch (IOException e) {
+            // Keep dumping, the problem may be temporary. Throwing would cancel the schedule.
+            System.err.println("Could not write metrics to " + this.path + ": " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.harleyoconnor.treasurehunt.random;
+
+/**
+ * Source of randomness for a single game. Each game (and anything it hands randomness to) should use its own source, so games
+ * never contend on a shared generator and a seeded game replays exactly. For default implementation use SplittableRandomSource.
+ *
+ * Random sources are not thread-safe. To hand randomness to another thread, split the source.
+ *
+ * @author Harley O'Connor
+ */
+public interface RandomSource {
+
+    /**
+     * @return A random integer between 0 (inclusive) and the bound (exclusive).
+     */
+    int nextInt(int bound);
+
+    /**
+     * @return A random long.
+     */
+    long nextLong();
+
+    /**
+     * @return A random double between 0 (inclusive) and 1 (exclusive).
+     */
+    double nextDouble();
+
+    /**
+     * Gets a random integer between the given values, both inclusive. Matches IntegerUtils.getRandomIntBetween.
+     *
+     * @return The random integer.
+     */
+    default int nextIntBetween (final int min, final int max) {
+        return min + this.nextInt(max - min + 1);
+    }
+
+    /**
+     * Creates a new source whose sequence is independent from this one, advancing this source. Splitting is deterministic, so
+     * splitting a seeded source gives seeded sources.
+     *
+     * @return The new random source.
+     */
+    RandomSource split();
+
+}
@@ -0,0 +1,74 @@
+package com.harleyoconnor.treasurehunt.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Default implementation of RandomSource, backed by a SplittableRandom.
+ *
+ * @author Harley O'Connor
+ */
+public final class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom random;
+
+    /**
+     * Creates an unseeded random source.
+     */
+    public SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a seeded random source. Two sources with the same seed give the same sequence.
+     */
+    public SplittableRandomSource(final long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SplittableRandomSource(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Creates the random source for one of many games run from a single seed, for example in a simulation. The source only depends on
+     * the seed and index, so games give the same results no matter which thread or order they are run in.
+     *
+     * @param seed The seed of the whole run.
+     * @param index The index of the game within the run.
+     * @return The random source for the game.
+     */
+    public static SplittableRandomSource forIndex (final long seed, final long index) {
+        // Seeds that differ by a multiple of SplittableRandom's gamma would give overlapping sequences, so mix the index in first.
+        return new SplittableRandomSource(mix64(seed + index * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Stafford variant 13 of the MurmurHash3 64-bit finaliser.
+     */
+    private static long mix64 (long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt(final int bound) {
+        return this.random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return this.random.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return this.random.nextDouble();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(this.random.split());
+    }
+
+}
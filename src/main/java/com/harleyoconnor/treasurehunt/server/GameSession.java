@@ -0,0 +1,114 @@
+package com.harleyoconnor.treasurehunt.server;
+
+import com.harleyoconnor.treasurehunt.TreasureHuntGame;
+import com.harleyoconnor.treasurehunt.grid.BoardRenderer;
+import com.harleyoconnor.treasurehunt.living.ChannelGuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.PlayerDisconnectedException;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * A single game played over a network connection, using the line protocol described in TreasureHuntServer.
+ *
+ * @author Harley O'Connor
+ */
+final class GameSession implements Runnable {
+
+    /** Sessions are dropped if the client doesn't send anything for this long. */
+    private static final int IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    private final TreasureHuntServer server;
+    private final Socket socket;
+
+    GameSession (final TreasureHuntServer server, final Socket socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+        try (final Socket socket = this.socket) {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final PrintStream output = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false, StandardCharsets.UTF_8.name());
+
+            try {
+                this.play(reader, output);
+            } finally {
+                output.flush();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The client went away, there is nobody left to tell.
+        }
+    }
+
+    private void play (final BufferedReader reader, final PrintStream output) throws IOException {
+        final String hello = reader.readLine();
+        if (hello == null) return;
+
+        // HELLO <name> <board size> <guesses> [QUIET|ANSI]
+        final String[] parts = hello.trim().split("\\s+");
+        final int boardSize, guesses;
+
+        try {
+            if (parts.length < 4 || parts.length > 5 || !parts[0].equals("HELLO") || (parts.length == 5 && !parts[4].equals("QUIET") && !parts[4].equals("ANSI")))
+                throw new NumberFormatException();
+
+            boardSize = Integer.parseInt(parts[2]);
+            guesses = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            output.println("ERROR Expected: HELLO <name> <board size> <guesses> [QUIET|ANSI]");
+            return;
+        }
+
+        if (boardSize < 1 || guesses < 1) {
+            output.println("ERROR Board size and guesses must be at least 1.");
+            return;
+        }
+
+        // Games that aren't quiet render the board too, which takes memory of its own.
+        final boolean quiet = parts.length == 5 && parts[4].equals("QUIET");
+        final long boardMemory = TreasureHuntGame.getBoardMemoryEstimate(boardSize) + (quiet ? 0 : BoardRenderer.getMemoryEstimate(boardSize));
+
+        if (!this.server.reserveBoardMemory(boardMemory)) {
+            output.println("ERROR Not enough board memory left on the server for a board of that size.");
+            return;
+        }
+
+        try {
+            output.println("WELCOME");
+
+            final SocketPlayerChannel channel = new SocketPlayerChannel(reader, output);
+            final Player player = new Player(parts[1], new ChannelGuessStrategy(channel, TreasureHuntServer.GUESS));
+
+            final TreasureHuntGame game = new TreasureHuntGame(boardSize, guesses, Collections.singletonList(player), new SplittableRandomSource(), quiet ? null : output);
+            game.setAnsiRendering(parts.length == 5 && parts[4].equals("ANSI"));
+            game.gameLoop();
+
+            output.println(TreasureHuntServer.RESULT + " " + player.getGold());
+        } catch (PlayerDisconnectedException e) {
+            // Nothing to do, the game is simply abandoned.
+        } catch (UncheckedIOException e) {
+            // The client went away, which run deals with.
+            throw e;
+        } catch (RuntimeException e) {
+            // Anything else is a bug in the game, which should end this session rather than the thread serving it.
+            output.println("ERROR " + e);
+        } finally {
+            this.server.releaseBoardMemory(boardMemory);
+        }
+    }
+
+}
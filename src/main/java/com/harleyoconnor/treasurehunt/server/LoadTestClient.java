@@ -0,0 +1,184 @@
+package com.harleyoconnor.treasurehunt.server;
+
+import com.harleyoconnor.treasurehunt.grid.Positions;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives many scripted sessions against a server at once, guessing random positions or playing through a script of guesses, and reports
+ * the latency of each guess: the time from sending a guess to the server asking for the next one (or sending the result).
+ *
+ * @author Harley O'Connor
+ */
+public final class LoadTestClient {
+
+    private final InetAddress address;
+    private final int port;
+    private final int boardSize;
+    private final int guesses;
+    private final boolean quiet;
+    /** Lines to send for each guess in the script, in order, or null to guess random positions. */
+    @Nullable
+    private final String[] scriptLines;
+
+    private final Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger completedSessions = new AtomicInteger();
+    private final AtomicInteger rejectedSessions = new AtomicInteger();
+    private final AtomicInteger failedSessions = new AtomicInteger();
+
+    /**
+     * @param address The address of the server.
+     * @param port The port of the server.
+     * @param boardSize The board size to ask for in each session.
+     * @param guesses The number of guesses to ask for in each session.
+     * @param quiet Whether to ask the server not to send the game text.
+     */
+    public LoadTestClient (final InetAddress address, final int port, final int boardSize, final int guesses, final boolean quiet) {
+        this(address, port, boardSize, guesses, quiet, null);
+    }
+
+    /**
+     * @param address The address of the server.
+     * @param port The port of the server.
+     * @param boardSize The board size to ask for in each session.
+     * @param guesses The number of guesses to ask for in each session.
+     * @param quiet Whether to ask the server not to send the game text.
+     * @param script The positions every session guesses, packed with Positions, looping back to the start once they are used up, or
+     *               null to guess random positions.
+     */
+    public LoadTestClient (final InetAddress address, final int port, final int boardSize, final int guesses, final boolean quiet, @Nullable final long[] script) {
+        this.address = address;
+        this.port = port;
+        this.boardSize = boardSize;
+        this.guesses = guesses;
+        this.quiet = quiet;
+
+        if (script == null || script.length == 0) {
+            this.scriptLines = null;
+            return;
+        }
+
+        // Every session sends the same lines, so only label them once.
+        this.scriptLines = new String[script.length];
+        for (int i = 0; i < script.length; i++) this.scriptLines[i] = Positions.toLabel(script[i]) + "\n";
+    }
+
+    /**
+     * Runs the given number of sessions, at most the given number at once, and waits for them all to finish.
+     *
+     * @return A summary of the results.
+     */
+    public String run (final int sessions, final int concurrency) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        final Semaphore permits = new Semaphore(concurrency);
+        final long startTime = System.nanoTime();
+
+        for (int i = 0; i < sessions; i++) {
+            permits.acquire();
+            final String name = "bot" + i;
+
+            executor.execute(() -> {
+                try {
+                    this.runSession(name);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        return this.summarise(System.nanoTime() - startTime);
+    }
+
+    private void runSession (final String name) {
+        final long[] sessionLatencies = new long[this.guesses];
+        int guessCount = 0;
+
+        try (final Socket socket = new Socket(this.address, this.port)) {
+            socket.setTcpNoDelay(true);
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+
+            writer.write("HELLO " + name + " " + this.boardSize + " " + this.guesses + (this.quiet ? " QUIET" : "") + "\n");
+            writer.flush();
+
+            final String welcome = reader.readLine();
+
+            if (welcome == null || !welcome.equals("WELCOME")) {
+                (welcome != null && welcome.startsWith("ERROR") ? this.rejectedSessions : this.failedSessions).incrementAndGet();
+                return;
+            }
+
+            long guessSentTime = 0;
+            int guessIndex = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                final boolean guessRequested = line.equals(TreasureHuntServer.GUESS);
+                final boolean finished = line.startsWith(TreasureHuntServer.RESULT);
+                if (!guessRequested && !finished) continue;
+
+                if (guessSentTime != 0 && guessCount < sessionLatencies.length)
+                    sessionLatencies[guessCount++] = System.nanoTime() - guessSentTime;
+
+                if (finished) {
+                    this.completedSessions.incrementAndGet();
+                    return;
+                }
+
+                if (this.scriptLines != null) {
+                    writer.write(this.scriptLines[guessIndex++ % this.scriptLines.length]);
+                } else {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    writer.write(Positions.toLabel(Positions.of(random.nextInt(this.boardSize), random.nextInt(this.boardSize))) + "\n");
+                }
+
+                writer.flush();
+                guessSentTime = System.nanoTime();
+            }
+
+            this.failedSessions.incrementAndGet();
+        } catch (IOException e) {
+            this.failedSessions.incrementAndGet();
+        } finally {
+            this.latencies.add(Arrays.copyOf(sessionLatencies, guessCount));
+        }
+    }
+
+    private String summarise (final long elapsedNanos) {
+        final long[] allLatencies = this.latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        return this.completedSessions.get() + " sessions completed, " + this.rejectedSessions.get() + " rejected, " + this.failedSessions.get() + " failed in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms.\n" +
+                allLatencies.length + " guesses, latency p50 " + formatMicros(percentile(allLatencies, 0.5)) + ", p99 " + formatMicros(percentile(allLatencies, 0.99)) +
+                ", max " + formatMicros(allLatencies.length == 0 ? 0 : allLatencies[allLatencies.length - 1]) + ".";
+    }
+
+    private static long percentile (final long[] sorted, final double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static String formatMicros (final long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.harleyoconnor.treasurehunt.server;
+
+import com.harleyoconnor.treasurehunt.living.PlayerChannel;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Player channel for a network session. Output is buffered and flushed whenever the player is asked for input.
+ *
+ * @author Harley O'Connor
+ */
+final class SocketPlayerChannel implements PlayerChannel {
+
+    private final BufferedReader reader;
+    private final PrintStream output;
+
+    SocketPlayerChannel (final BufferedReader reader, final PrintStream output) {
+        this.reader = reader;
+        this.output = output;
+    }
+
+    @Nullable
+    @Override
+    public String readLine(final String prompt) {
+        this.output.println(prompt);
+        this.output.flush();
+
+        try {
+            return this.reader.readLine();
+        } catch (IOException e) {
+            // Timeouts and resets are treated the same as the player disconnecting.
+            return null;
+        }
+    }
+
+    @Override
+    public PrintStream getOutput() {
+        return this.output;
+    }
+
+}
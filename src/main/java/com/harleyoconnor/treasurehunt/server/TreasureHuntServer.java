@@ -0,0 +1,153 @@
+package com.harleyoconnor.treasurehunt.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many concurrent single player games over TCP, each session on its own (virtual, where available) thread.
+ *
+ * The protocol is line based. The client opens with 'HELLO &lt;name&gt; &lt;board size&gt; &lt;guesses&gt; [QUIET|ANSI]', and the
+ * server replies 'WELCOME', or 'ERROR &lt;reason&gt;' and closes the connection. The server then sends the game as text, unless QUIET
+ * was given. With ANSI the board stays at the top of the client's terminal and is redrawn in place using ANSI escape codes. The server
+ * sends 'GUESS' on its own line whenever it wants a guess, to which the client replies with a position such as 'B7'. Invalid positions
+ * are asked for again. Once the game ends the server sends 'RESULT &lt;gold&gt;' and closes the connection, or 'ERROR &lt;reason&gt;'
+ * if the game failed.
+ *
+ * @author Harley O'Connor
+ */
+public final class TreasureHuntServer implements Closeable {
+
+    static final String GUESS = "GUESS";
+    static final String RESULT = "RESULT";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessionExecutor;
+    private final Semaphore sessions;
+    private final long maxBoardMemory;
+    private final AtomicLong boardMemory = new AtomicLong();
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     * @param bindAddress The address to listen on, or null for all addresses.
+     * @param maxSessions The maximum number of sessions running at once. Further connections are turned away.
+     * @param maxBoardMemory The maximum estimated memory of all running sessions' boards, in bytes.
+     */
+    public TreasureHuntServer (final int port, final InetAddress bindAddress, final int maxSessions, final long maxBoardMemory) throws IOException {
+        this.serverSocket = new ServerSocket(port, 1024, bindAddress);
+        this.sessionExecutor = newSessionExecutor();
+        this.sessions = new Semaphore(maxSessions);
+        this.maxBoardMemory = maxBoardMemory;
+    }
+
+    /**
+     * Creates an executor running each session on a new virtual thread, falling back to a cached pool of platform threads on Java
+     * versions without them.
+     */
+    private static ExecutorService newSessionExecutor () {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "treasure-hunt-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getPort () {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public void start () {
+        final Thread acceptThread = new Thread(this::acceptConnections, "treasure-hunt-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    private void acceptConnections () {
+        while (!this.serverSocket.isClosed()) {
+            final Socket socket;
+
+            try {
+                socket = this.serverSocket.accept();
+            } catch (SocketException e) {
+                return; // The server was closed.
+            } catch (IOException e) {
+                System.err.println("Could not accept connection: " + e.getMessage());
+                continue;
+            }
+
+            if (!this.sessions.tryAcquire()) {
+                reject(socket, "ERROR Server is full.");
+                continue;
+            }
+
+            this.sessionExecutor.execute(() -> {
+                try {
+                    new GameSession(this, socket).run();
+                } finally {
+                    this.sessions.release();
+                }
+            });
+        }
+    }
+
+    private static void reject (final Socket socket, final String message) {
+        try (final Socket closingSocket = socket; final OutputStream outputStream = closingSocket.getOutputStream()) {
+            outputStream.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The client went away, there is nobody left to tell.
+        }
+    }
+
+    /**
+     * Reserves board memory for a session.
+     *
+     * @return True if the memory was reserved, or false if it would take the server over its cap.
+     */
+    boolean reserveBoardMemory (final long bytes) {
+        final long total = this.boardMemory.addAndGet(bytes);
+
+        if (total > this.maxBoardMemory) {
+            this.boardMemory.addAndGet(-bytes);
+            return false;
+        }
+
+        return true;
+    }
+
+    void releaseBoardMemory (final long bytes) {
+        this.boardMemory.addAndGet(-bytes);
+    }
+
+    /**
+     * @return The estimated memory of all running sessions' boards, in bytes.
+     */
+    public long getBoardMemory () {
+        return this.boardMemory.get();
+    }
+
+    /**
+     * Stops accepting connections. Running sessions are left to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.sessionExecutor.shutdown();
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.harleyoconnor.treasurehunt.simulation;
+
+import com.harleyoconnor.treasurehunt.TreasureHuntGame;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Runs many independent headless games in parallel and aggregates their results.
+ *
+ * Each game gets its own random source derived from the simulation seed and the game's index, so a seeded simulation gives the same
+ * results no matter how the games are spread over threads.
+ *
+ * @author Harley O'Connor
+ */
+public final class Simulation {
+
+    /**
+     * Number of games each fork join task plays itself rather than splitting further.
+     */
+    private static final int GAMES_PER_TASK = 256;
+
+    private final int boardSize;
+    private final int guesses;
+    private final int playersPerGame;
+    private final Function<RandomSource, GuessStrategy> guessStrategyFactory;
+    private final long seed;
+
+    /**
+     * @param boardSize The board size of each game.
+     * @param guesses The number of guesses each player gets.
+     * @param playersPerGame The number of players in each game.
+     * @param guessStrategyFactory Creates the guess strategy for each player from a random source split off the game's source.
+     *                             Called once per player, so strategies may hold state.
+     * @param seed The seed the random source of every game is derived from.
+     */
+    public Simulation (final int boardSize, final int guesses, final int playersPerGame, final Function<RandomSource, GuessStrategy> guessStrategyFactory, final long seed) {
+        this.boardSize = boardSize;
+        this.guesses = guesses;
+        this.playersPerGame = playersPerGame;
+        this.guessStrategyFactory = guessStrategyFactory;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the given number of games on a fork join pool using every available core.
+     *
+     * @param games The number of games to run.
+     * @return The aggregated results.
+     */
+    public SimulationResults run (final long games) {
+        return this.run(games, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs the given number of games on a fork join pool with the given parallelism.
+     *
+     * @param games The number of games to run.
+     * @param parallelism The number of worker threads.
+     * @return The aggregated results.
+     */
+    public SimulationResults run (final long games, final int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            return pool.invoke(new SimulationTask(0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single headless game.
+     *
+     * @param index The index of the game within the simulation.
+     */
+    private TreasureHuntGame playGame (final long index) {
+        final RandomSource random = SplittableRandomSource.forIndex(this.seed, index);
+        final List<Player> players = new ArrayList<>(this.playersPerGame);
+
+        for (int i = 0; i < this.playersPerGame; i++)
+            players.add(new Player("player" + (i + 1), this.guessStrategyFactory.apply(random.split())));
+
+        final TreasureHuntGame game = new TreasureHuntGame(this.boardSize, this.guesses, players, random, null);
+        game.gameLoop();
+        return game;
+    }
+
+    /**
+     * Splits the games in half until there are few enough to play directly, then merges the results back up.
+     */
+    private final class SimulationTask extends RecursiveTask<SimulationResults> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long firstGame;
+        private final long games;
+
+        private SimulationTask (final long firstGame, final long games) {
+            this.firstGame = firstGame;
+            this.games = games;
+        }
+
+        @Override
+        protected SimulationResults compute() {
+            if (this.games <= GAMES_PER_TASK) {
+                final SimulationResults results = new SimulationResults();
+
+                for (long i = 0; i < this.games; i++)
+                    results.record(playGame(this.firstGame + i));
+
+                return results;
+            }
+
+            final long half = this.games / 2;
+            final SimulationTask left = new SimulationTask(this.firstGame, half);
+            final SimulationTask right = new SimulationTask(this.firstGame + half, this.games - half);
+
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.harleyoconnor.treasurehunt.simulation;
+
+import com.harleyoconnor.treasurehunt.TreasureHuntGame;
+import com.harleyoconnor.treasurehunt.living.Player;
+
+/**
+ * Aggregate statistics over a number of simulated games. Each worker fills in its own results, which are then merged, so this class
+ * isn't thread-safe.
+ *
+ * @author Harley O'Connor
+ */
+public final class SimulationResults {
+
+    /**
+     * Gold distribution buckets. Bucket 0 holds players with no gold, and bucket n holds players with between 2^(n-1) and 2^n - 1 gold.
+     */
+    private final long[] goldDistribution = new long[Long.SIZE + 1];
+
+    private long games;
+    private long players;
+    private long totalGold;
+    private long minGold = Long.MAX_VALUE;
+    private long maxGold;
+    private long treasureEaten;
+    private long itemsStolen;
+
+    /**
+     * Records the outcome of a finished game.
+     */
+    public void record (final TreasureHuntGame game) {
+        this.games++;
+        this.treasureEaten += game.getTreasureEaten();
+        this.itemsStolen += game.getItemsStolen();
+
+        for (final Player player : game.getPlayers()) {
+            final long gold = player.getGold();
+
+            this.players++;
+            this.totalGold += gold;
+            this.minGold = Math.min(this.minGold, gold);
+            this.maxGold = Math.max(this.maxGold, gold);
+            this.goldDistribution[Long.SIZE - Long.numberOfLeadingZeros(gold)]++;
+        }
+    }
+
+    /**
+     * Adds the given results to these results.
+     *
+     * @return These results.
+     */
+    public SimulationResults merge (final SimulationResults other) {
+        this.games += other.games;
+        this.players += other.players;
+        this.totalGold += other.totalGold;
+        this.minGold = Math.min(this.minGold, other.minGold);
+        this.maxGold = Math.max(this.maxGold, other.maxGold);
+        this.treasureEaten += other.treasureEaten;
+        this.itemsStolen += other.itemsStolen;
+
+        for (int i = 0; i < this.goldDistribution.length; i++)
+            this.goldDistribution[i] += other.goldDistribution[i];
+
+        return this;
+    }
+
+    public long getGames() {
+        return this.games;
+    }
+
+    public long getPlayers() {
+        return this.players;
+    }
+
+    public long getTotalGold() {
+        return this.totalGold;
+    }
+
+    public long getMinGold() {
+        return this.players == 0 ? 0 : this.minGold;
+    }
+
+    public long getMaxGold() {
+        return this.maxGold;
+    }
+
+    public double getMeanGold() {
+        return this.players == 0 ? 0 : (double) this.totalGold / this.players;
+    }
+
+    public long getTreasureEaten() {
+        return this.treasureEaten;
+    }
+
+    public long getItemsStolen() {
+        return this.itemsStolen;
+    }
+
+    /**
+     * @return A copy of the gold distribution buckets. See goldDistribution for what each bucket holds.
+     */
+    public long[] getGoldDistribution() {
+        return this.goldDistribution.clone();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder()
+                .append(this.games).append(" games, ").append(this.players).append(" players.\n")
+                .append("Gold per player: mean ").append(String.format("%.2f", this.getMeanGold()))
+                .append(", min ").append(this.getMinGold()).append(", max ").append(this.maxGold).append(".\n")
+                .append("Treasure eaten by monsters: ").append(this.treasureEaten)
+                .append(", items stolen by monsters: ").append(this.itemsStolen).append(".\n")
+                .append("Gold distribution:\n");
+
+        for (int i = 0; i < this.goldDistribution.length; i++) {
+            if (this.goldDistribution[i] == 0) continue;
+
+            final long lower = i == 0 ? 0 : 1L << (i - 1);
+            final long upper = i == 0 ? 0 : (1L << (i - 1)) * 2 - 1;
+            stringBuilder.append("- ").append(lower).append(lower == upper ? "" : " to " + upper).append(": ")
+                    .append(this.goldDistribution[i]).append('\n');
+        }
+
+        return stringBuilder.toString();
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.harleyoconnor.treasurehunt.tournament;
+
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running totals of the gold each player has won over a tournament, ordered by gold so rank and top k queries don't need sorting.
+ *
+ * Players are held in a treap (a binary search tree balanced by random priorities) ordered by gold, most first, then by name. Each node
+ * holds the size of its subtree, so a player's rank is found in logarithmic time, as is adding gold, which moves the player to their
+ * new place. Memory grows with the number of players, not the number of games.
+ *
+ * All methods are synchronized, so games can add their results from many threads.
+ *
+ * @author Harley O'Connor
+ */
+public final class Leaderboard {
+
+    /** Players by name, pointing at their node in the tree. */
+    private final Map<String, Node> players = new HashMap<>();
+    /** Only used for node priorities. Seeded, so the same tournament builds the same tree on every run. */
+    private final RandomSource random = new SplittableRandomSource(0);
+    private Node root;
+
+    /**
+     * Adds gold won in a game to the player's total, adding the player if they haven't played before.
+     *
+     * @param name The player's name.
+     * @param gold The gold they won.
+     */
+    public synchronized void addGold (final String name, final long gold) {
+        Node node = this.players.get(name);
+
+        if (node == null) {
+            node = new Node(name, this.random.nextLong());
+            this.players.put(name, node);
+        } else {
+            this.root = remove(this.root, node);
+        }
+
+        node.gold += gold;
+        node.games++;
+        this.root = insert(this.root, node);
+    }
+
+    /**
+     * @return The number of players on the leaderboard.
+     */
+    public synchronized int size () {
+        return this.players.size();
+    }
+
+    /**
+     * @return The player's total gold, or 0 if they haven't played.
+     */
+    public synchronized long getGold (final String name) {
+        final Node node = this.players.get(name);
+        return node == null ? 0 : node.gold;
+    }
+
+    /**
+     * Gets the player's rank. Players with the same gold are ranked by name, so every player has a different rank.
+     *
+     * @return The player's rank, starting at 1 for the player with the most gold, or -1 if they haven't played.
+     */
+    public synchronized int getRank (final String name) {
+        final Node node = this.players.get(name);
+        if (node == null) return -1;
+
+        int ahead = 0;
+        Node current = this.root;
+
+        while (current != node) {
+            if (compare(node, current) < 0) {
+                current = current.left;
+            } else {
+                ahead += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+
+        return ahead + size(node.left) + 1;
+    }
+
+    /**
+     * @param count The number of standings to get.
+     * @return The standings of the players with the most gold, best first. Shorter than the given count if there aren't enough players.
+     */
+    public synchronized List<Standing> getTop (final int count) {
+        if (count <= 0 || this.root == null) return Collections.emptyList();
+
+        final List<Standing> standings = new ArrayList<>(Math.min(count, this.players.size()));
+        final Deque<Node> path = new ArrayDeque<>();
+        Node current = this.root;
+
+        // Walk the tree in order, stopping once enough players have been seen.
+        while (standings.size() < count && (current != null || !path.isEmpty())) {
+            while (current != null) {
+                path.push(current);
+                current = current.left;
+            }
+
+            current = path.pop();
+            standings.add(new Standing(standings.size() + 1, current.name, current.gold, current.games));
+            current = current.right;
+        }
+
+        return standings;
+    }
+
+    /**
+     * Orders nodes by gold, most first, then by name.
+     */
+    private static int compare (final Node a, final Node b) {
+        final int goldComparison = Long.compare(b.gold, a.gold);
+        return goldComparison != 0 ? goldComparison : a.name.compareTo(b.name);
+    }
+
+    private static int size (final Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void updateSize (final Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static Node insert (final Node root, final Node node) {
+        if (root == null) {
+            node.left = node.right = null;
+            node.size = 1;
+            return node;
+        }
+
+        // A node with a higher priority than the root takes its place, with the rest of the tree split either side of it.
+        if (node.priority > root.priority) {
+            split(root, node);
+            updateSize(node);
+            return node;
+        }
+
+        if (compare(node, root) < 0) {
+            root.left = insert(root.left, node);
+        } else {
+            root.right = insert(root.right, node);
+        }
+
+        updateSize(root);
+        return root;
+    }
+
+    /**
+     * Splits the tree into the nodes before the given node, which become its left subtree, and those after, its right subtree.
+     */
+    private static void split (final Node root, final Node node) {
+        if (root == null) {
+            node.left = node.right = null;
+            return;
+        }
+
+        if (compare(root, node) < 0) {
+            split(root.right, node);
+            root.right = node.left;
+            updateSize(root);
+            node.left = root;
+        } else {
+            split(root.left, node);
+            root.left = node.right;
+            updateSize(root);
+            node.right = root;
+        }
+    }
+
+    private static Node remove (final Node root, final Node node) {
+        if (root == node) return merge(root.left, root.right);
+
+        if (compare(node, root) < 0) {
+            root.left = remove(root.left, node);
+        } else {
+            root.right = remove(root.right, node);
+        }
+
+        updateSize(root);
+        return root;
+    }
+
+    /**
+     * Merges two trees, where every node of the left tree comes before every node of the right.
+     */
+    private static Node merge (final Node left, final Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        updateSize(right);
+        return right;
+    }
+
+    private static final class Node {
+        private final String name;
+        private final long priority;
+        private long gold;
+        private int games;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node (final String name, final long priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * A player's place on the leaderboard at the time it was read.
+     */
+    public static final class Standing {
+        private final int rank;
+        private final String name;
+        private final long gold;
+        private final int games;
+
+        private Standing (final int rank, final String name, final long gold, final int games) {
+            this.rank = rank;
+            this.name = name;
+            this.gold = gold;
+            this.games = games;
+        }
+
+        public int getRank() {
+            return this.rank;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getGold() {
+            return this.gold;
+        }
+
+        public int getGames() {
+            return this.games;
+        }
+
+        @Override
+        public String toString() {
+            return this.rank + ". " + this.name + ": " + this.gold + " gold from " + this.games + " game" + (this.games == 1 ? "" : "s");
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.harleyoconnor.treasurehunt.tournament;
+
+import com.harleyoconnor.treasurehunt.TreasureHuntGame;
+import com.harleyoconnor.treasurehunt.living.GuessStrategy;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Plays a ladder tournament: player names are streamed in, grouped into headless games in the order they're read, and the gold each
+ * player wins is added to a leaderboard as each game finishes. A player may be listed any number of times to play in many games.
+ *
+ * Only a bounded number of games are queued at once, with the reading thread playing games itself while the queue is full, so memory
+ * stays bounded however many players are streamed in. Each game gets its own random source derived from the tournament seed and the
+ * game's index, so a seeded tournament gives the same leaderboard no matter how the games are spread over threads.
+ *
+ * @author Harley O'Connor
+ */
+public final class Tournament {
+
+    /** Number of games queued per worker thread before the reading thread has to play games itself. */
+    private static final int QUEUED_GAMES_PER_THREAD = 4;
+
+    private final int boardSize;
+    private final int guesses;
+    private final int playersPerGame;
+    private final Function<RandomSource, GuessStrategy> guessStrategyFactory;
+    private final long seed;
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    /**
+     * @param boardSize The board size of each game.
+     * @param guesses The number of guesses each player gets.
+     * @param playersPerGame The number of players in each game. The last game may have fewer, if the players run out.
+     * @param guessStrategyFactory Creates the guess strategy for each player from a random source split off the game's source.
+     * @param seed The seed the random source of every game is derived from.
+     */
+    public Tournament (final int boardSize, final int guesses, final int playersPerGame, final Function<RandomSource, GuessStrategy> guessStrategyFactory, final long seed) {
+        this.boardSize = boardSize;
+        this.guesses = guesses;
+        this.playersPerGame = playersPerGame;
+        this.guessStrategyFactory = guessStrategyFactory;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays games until the reader runs out of players, using the given number of worker threads.
+     *
+     * @param playerNames Reader of player names, one per line. Blank lines are skipped.
+     * @param parallelism The number of worker threads.
+     * @return The number of games played.
+     * @throws IOException If the player names couldn't be read.
+     * @throws InterruptedException If interrupted while waiting for games to finish.
+     */
+    public long run (final BufferedReader playerNames, final int parallelism) throws IOException, InterruptedException {
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        // Runs games on the reading thread while the queue is full, which holds off reading more names until the workers catch up.
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(parallelism * QUEUED_GAMES_PER_THREAD), runnable -> {
+                    final Thread thread = new Thread(runnable, "treasure-hunt-tournament");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        long games = 0;
+
+        try {
+            List<String> names = new ArrayList<>(this.playersPerGame);
+            String line;
+
+            while ((line = playerNames.readLine()) != null && failure.get() == null) {
+                final String name = line.trim();
+                if (name.isEmpty()) continue;
+
+                names.add(name);
+                if (names.size() < this.playersPerGame) continue;
+
+                this.submitGame(executor, games++, names, failure);
+                names = new ArrayList<>(this.playersPerGame);
+            }
+
+            if (!names.isEmpty() && failure.get() == null) this.submitGame(executor, games++, names, failure);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        // Pass on a failed game, for example one with a broken guess strategy, as if it happened on this thread.
+        if (failure.get() != null) throw failure.get();
+
+        return games;
+    }
+
+    private void submitGame (final ThreadPoolExecutor executor, final long index, final List<String> names, final AtomicReference<RuntimeException> failure) {
+        executor.execute(() -> {
+            try {
+                this.playGame(index, names);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    /**
+     * Plays a single headless game, and adds each player's gold to the leaderboard.
+     *
+     * @param index The index of the game within the tournament.
+     * @param names The names of the players in the game.
+     */
+    private void playGame (final long index, final List<String> names) {
+        final RandomSource random = SplittableRandomSource.forIndex(this.seed, index);
+        final List<Player> players = new ArrayList<>(names.size());
+
+        for (final String name : names)
+            players.add(new Player(name, this.guessStrategyFactory.apply(random.split())));
+
+        new TreasureHuntGame(this.boardSize, this.guesses, players, random, null).gameLoop();
+
+        for (final Player player : players)
+            this.leaderboard.addGold(player.getName(), player.getGold());
+    }
+
+    /**
+     * @return The leaderboard, which is updated as games finish, so can be read while the tournament is running.
+     */
+    public Leaderboard getLeaderboard() {
+        return this.leaderboard;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+
+/**
+ * Walker's alias table, built with Vose's method. Samples an index with probability proportional to its weight in constant time,
+ * using one random integer and one random double, without allocating.
+ *
+ * @author Harley O'Connor
+ */
+final class AliasTable {
+
+    /** Chance of keeping each column's own index rather than its alias. */
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights The weight of each index. Must all be finite and not negative, with at least one positive. Indexes weighing
+     *                zero are never sampled.
+     */
+    AliasTable (final double[] weights) {
+        final int size = weights.length;
+        this.probabilities = new double[size];
+        this.aliases = new int[size];
+
+        double totalWeight = 0;
+        for (final double weight : weights) totalWeight += weight;
+
+        // Scale weights so the average column is exactly full, then split them into under and over full stacks.
+        final double[] scaled = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallCount = 0, largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / totalWeight;
+            if (scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        // Top up each under full column with the remainder of an over full one.
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+
+            this.probabilities[less] = scaled[less];
+            this.aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+
+        // Anything left over is full, give or take floating point error.
+        while (largeCount > 0) this.probabilities[large[--largeCount]] = 1;
+        while (smallCount > 0) this.probabilities[small[--smallCount]] = 1;
+    }
+
+    int size () {
+        return this.probabilities.length;
+    }
+
+    /**
+     * Gets the exact chance of sampling the given index, from its own column and every column aliased to it. Package-private so tests
+     * can check the table against its weights.
+     */
+    double getProbability (final int index) {
+        double probability = 0;
+
+        for (int column = 0; column < this.probabilities.length; column++) {
+            if (column == index) probability += this.probabilities[column];
+            if (this.aliases[column] == index) probability += 1 - this.probabilities[column];
+        }
+
+        return probability / this.probabilities.length;
+    }
+
+    /**
+     * @param random The random source to draw from.
+     * @return A random index, chosen with probability proportional to its weight.
+     */
+    int sample (final RandomSource random) {
+        final int column = random.nextInt(this.probabilities.length);
+        return random.nextDouble() < this.probabilities[column] ? column : this.aliases[column];
+    }
+
+}
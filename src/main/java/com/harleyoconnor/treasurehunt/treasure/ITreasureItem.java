@@ -7,7 +7,17 @@ package com.harleyoconnor.treasurehunt.treasure;
  */
 public interface ITreasureItem {
 
+    /**
+     * @return The dense id assigned to the item at registration, which is its index in the registry.
+     */
+    int getId();
+
     String getName();
     long getValue();
 
+    /**
+     * @return How common the item is relative to other items. An item with weight 2 is twice as common as one with weight 1.
+     */
+    double getWeight();
+
 }
@@ -1,18 +1,31 @@
 package com.harleyoconnor.treasurehunt.treasure;
 
 /**
- * Default implementation of ITreasureItem. Holds a name and a value.
+ * Default implementation of ITreasureItem. Holds an id, a name, a value and a weight.
  *
  * @author Harley O'Connor
  */
 public class TreasureItem implements ITreasureItem {
 
+    private final int id;
     private final String name;
     private final long value;
+    private final double weight;
 
-    public TreasureItem(final String name, final long value) {
+    public TreasureItem(final int id, final String name, final long value) {
+        this(id, name, value, 1);
+    }
+
+    public TreasureItem(final int id, final String name, final long value, final double weight) {
+        this.id = id;
         this.name = name;
         this.value = value;
+        this.weight = weight;
+    }
+
+    @Override
+    public int getId() {
+        return this.id;
     }
 
     @Override
@@ -25,4 +38,9 @@ public class TreasureItem implements ITreasureItem {
         return this.value;
     }
 
+    @Override
+    public double getWeight() {
+        return this.weight;
+    }
+
 }
@@ -1,17 +1,26 @@
 package com.harleyoconnor.treasurehunt.treasure;
 
-import com.harleyoconnor.javautilities.IntegerUtils;
 import com.harleyoconnor.javautilities.FileUtils;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import javax.annotation.Nullable;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Class to handle treasure item registry.
@@ -21,45 +30,134 @@ import java.util.Objects;
 public class TreasureItems {
 
     /**
-     * Registry list of treasure items. Populated in the register() procedure in this class.
+     * Where the binary snapshot of the registry is kept. Can be changed with the treasurehunt.snapshot system property.
      */
-    public static final List<ITreasureItem> TREASURE_ITEMS = new ArrayList<>();
+    private static final File SNAPSHOT_FILE = new File(System.getProperty("treasurehunt.snapshot",
+            new File(System.getProperty("java.io.tmpdir"), "treasurehunt-treasure.bin").getPath()));
 
     /**
-     * Registers treasure items from assets/treasure directory.
+     * Current registry snapshot. Populated in the register() procedure in this class, and replaced as a whole on each registration so
+     * the items and their weighted sampling table always change together.
+     */
+    private static volatile TreasureRegistry registry = TreasureRegistry.EMPTY;
+
+    /**
+     * Registers treasure items from assets/treasure directory, replacing any previously registered items.
+     *
+     * If the treasure JSONs haven't changed since the last registration, items are read from the binary snapshot. Otherwise the JSONs
+     * are parsed in parallel and a new snapshot is written. Dense ids are assigned in file name order either way, skipping files that
+     * couldn't be read.
      */
     public static void register () {
-        final JSONParser jsonParser = new JSONParser(); // Create JSON object.
         final File directory = FileUtils.getFile("treasure"); // Get treasure directory.
+        final File[] files = Objects.requireNonNull(FileUtils.getChildFiles(directory, ".json")).clone();
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        final long key = getContentKey(files);
+        List<ITreasureItem> treasureItems = TreasureSnapshot.read(SNAPSHOT_FILE, key);
+
+        if (treasureItems == null) {
+            // Parse treasure jsons in parallel, keeping them in file order.
+            final List<ITreasureItem> parsedItems = Arrays.stream(files).parallel().map(TreasureItems::read).filter(Objects::nonNull).collect(Collectors.toList());
+
+            // Assign ids now that it's known which files could be read.
+            treasureItems = new ArrayList<>(parsedItems.size());
+            for (final ITreasureItem treasureItem : parsedItems)
+                treasureItems.add(new TreasureItem(treasureItems.size(), treasureItem.getName(), treasureItem.getValue(), treasureItem.getWeight()));
+
+            // Only snapshot complete registrations, so broken files keep being reported until they are fixed.
+            if (treasureItems.size() == files.length) {
+                try {
+                    TreasureSnapshot.write(SNAPSHOT_FILE, key, treasureItems);
+                } catch (IOException e) {
+                    System.err.println("Could not write treasure snapshot to " + SNAPSHOT_FILE + ": " + e.getMessage());
+                }
+            }
+        }
+
+        registry = new TreasureRegistry(treasureItems);
+    }
+
+    /**
+     * Gets a key that changes whenever a treasure JSON is added, removed, renamed or its content changes. Content is hashed rather than
+     * compared by size and modification time, so edits that keep a file's size, or copies that keep modification times, are noticed.
+     */
+    private static long getContentKey (final File[] files) {
+        // Hash the files in parallel, then combine them in file order.
+        final long[] contentHashes = Arrays.stream(files).parallel().mapToLong(TreasureItems::getContentHash).toArray();
+        long key = files.length;
+
+        for (int i = 0; i < files.length; i++) {
+            key = key * 31 + files[i].getName().hashCode();
+            key = key * 31 + contentHashes[i];
+        }
 
-        // Loop through treasure jsons and register each item.
-        for (final File file : Objects.requireNonNull(FileUtils.getChildFiles(directory, ".json")))
-            register (jsonParser, file);
+        return key;
     }
 
     /**
-     * Registers a treasure item from a JSON file.
+     * @return The first 64 bits of the SHA-256 hash of the file's content, or 0 if it couldn't be read (in which case parsing it fails
+     * too, so no snapshot is written).
+     */
+    private static long getContentHash (final File file) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()))).getLong();
+        } catch (IOException e) {
+            return 0;
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a treasure item from a JSON file.
      *
-     * @param jsonParser The relevant JSON parser.
      * @param file The JSON file to read from.
+     * @return The treasure item without an id (-1), or null if the file couldn't be read, in which case the reason is printed.
      */
-    public static void register (final JSONParser jsonParser, final File file) {
-        try {
-            final JSONObject jsonObject = (JSONObject) jsonParser.parse(new FileReader(file));
-            TREASURE_ITEMS.add(new TreasureItem((String) jsonObject.get("name"), (long) jsonObject.get("value")));
-        } catch (IOException | ParseException e) {
-            System.err.println("Fatal error occurred whilst registering a treasure item. It is likely that the treasure JSONs have been formatted incorrectly.");
-            e.printStackTrace();
+    @Nullable
+    private static ITreasureItem read (final File file) {
+        try (final Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final Object json = new JSONParser().parse(reader);
+            if (!(json instanceof JSONObject)) throw new IllegalArgumentException("expected a JSON object");
+
+            final JSONObject jsonObject = (JSONObject) json;
+            final Object name = jsonObject.get("name");
+            final Object value = jsonObject.get("value");
+            // Weight is optional, and defaults to 1.
+            final Object weight = jsonObject.containsKey("weight") ? jsonObject.get("weight") : (Object) 1L;
+
+            if (!(name instanceof String)) throw new IllegalArgumentException("'name' must be a string");
+            if (!(value instanceof Long)) throw new IllegalArgumentException("'value' must be a whole number");
+            if (!(weight instanceof Number)) throw new IllegalArgumentException("'weight' must be a number");
+
+            final double weightValue = ((Number) weight).doubleValue();
+            if (!(weightValue > 0) || Double.isInfinite(weightValue)) throw new IllegalArgumentException("'weight' must be positive");
+
+            return new TreasureItem(-1, (String) name, (long) value, weightValue);
+        } catch (IOException | ParseException | IllegalArgumentException e) {
+            System.err.println("Could not register treasure item from " + file.getName() + ", skipping it: " + (e instanceof ParseException ? "malformed JSON at position " + ((ParseException) e).getPosition() : e.getMessage()) + ".");
+            return null;
         }
     }
 
     /**
-     * Gets a random treasure item from the registry list.
+     * @return The current registry snapshot.
+     */
+    public static TreasureRegistry getRegistry () {
+        return registry;
+    }
+
+    /**
+     * Gets a weighted random treasure item from the current registry.
      *
+     * @param random The random source to draw from.
      * @return Random treasure item.
      */
-    public static ITreasureItem getRandom () {
-        return TREASURE_ITEMS.get(IntegerUtils.getRandomIntBetween(0, TREASURE_ITEMS.size() - 1));
+    public static ITreasureItem getRandom (final RandomSource random) {
+        final TreasureRegistry registry = TreasureItems.registry;
+        return registry.get(registry.getRandomId(random));
     }
 
 }
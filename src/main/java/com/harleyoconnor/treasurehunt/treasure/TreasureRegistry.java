@@ -0,0 +1,90 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the registered treasure items. Each item's id must be its index in the snapshot.
+ *
+ * Games hold onto the snapshot they were created with, so reloading the registry never changes the items of a game in progress.
+ *
+ * @author Harley O'Connor
+ */
+public final class TreasureRegistry {
+
+    public static final TreasureRegistry EMPTY = new TreasureRegistry(Collections.emptyList());
+
+    private final List<ITreasureItem> treasureItems;
+    /** Table for weighted sampling of item ids, or null if there are no items. */
+    private final AliasTable aliasTable;
+    /** Hash of every item's id, name, value and weight. */
+    private final long fingerprint;
+
+    public TreasureRegistry (final List<ITreasureItem> treasureItems) {
+        this.treasureItems = Collections.unmodifiableList(new ArrayList<>(treasureItems));
+
+        for (int i = 0; i < this.treasureItems.size(); i++)
+            if (this.treasureItems.get(i).getId() != i)
+                throw new IllegalArgumentException("Treasure item " + this.treasureItems.get(i).getName() + " has id " + this.treasureItems.get(i).getId() + " but is at index " + i + ".");
+
+        final double[] weights = new double[this.treasureItems.size()];
+        for (int i = 0; i < weights.length; i++)
+            weights[i] = this.treasureItems.get(i).getWeight();
+
+        this.aliasTable = weights.length == 0 ? null : new AliasTable(weights);
+
+        long fingerprint = this.treasureItems.size();
+
+        for (final ITreasureItem treasureItem : this.treasureItems) {
+            fingerprint = fingerprint * 31 + treasureItem.getId();
+            fingerprint = fingerprint * 31 + treasureItem.getName().hashCode();
+            fingerprint = fingerprint * 31 + treasureItem.getValue();
+            fingerprint = fingerprint * 31 + Double.doubleToLongBits(treasureItem.getWeight());
+        }
+
+        this.fingerprint = fingerprint;
+    }
+
+    public int size () {
+        return this.treasureItems.size();
+    }
+
+    /**
+     * Gets a hash of every item's id, name, value and weight, for checking a saved game or guess log is used with the items it was made
+     * with. Registries of the same items in the same order have the same fingerprint.
+     */
+    public long getFingerprint () {
+        return this.fingerprint;
+    }
+
+    /**
+     * @param id The id of the treasure item.
+     * @return The treasure item with the given id.
+     */
+    public ITreasureItem get (final int id) {
+        return this.treasureItems.get(id);
+    }
+
+    /**
+     * @return An unmodifiable list of the treasure items, in id order.
+     */
+    public List<ITreasureItem> getTreasureItems () {
+        return this.treasureItems;
+    }
+
+    /**
+     * Gets the id of a random treasure item, chosen with probability proportional to its weight.
+     *
+     * @param random The random source to draw from.
+     * @return Random treasure item id.
+     */
+    public int getRandomId (final RandomSource random) {
+        if (this.aliasTable == null) throw new IllegalStateException("Cannot pick a random treasure item as none are registered.");
+
+        return this.aliasTable.sample(random);
+    }
+
+}
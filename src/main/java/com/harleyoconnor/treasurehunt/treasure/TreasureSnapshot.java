@@ -0,0 +1,119 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary snapshot of the treasure registry, so unchanged treasure JSONs don't need parsing again on the next start.
+ *
+ * The format is the magic number, format version, key of the treasure JSONs the snapshot was made from, and item count, followed by
+ * each item's name (as a length prefixed UTF-8 string), value and weight. Snapshots are checked as they're read, so one that's been
+ * damaged or edited is rebuilt rather than trusted.
+ *
+ * @author Harley O'Connor
+ */
+final class TreasureSnapshot {
+
+    private static final int MAGIC = 0x54485453; // THTS
+    private static final int VERSION = 1;
+
+    private TreasureSnapshot() {}
+
+    /**
+     * Reads the items from a snapshot with a single memory mapped read.
+     *
+     * @param file The snapshot file.
+     * @param key The key of the treasure JSONs.
+     * @return The items in id order, or null if there is no snapshot, or it is for a different key or otherwise unusable.
+     */
+    @Nullable
+    static List<ITreasureItem> read (final File file, final long key) {
+        if (!file.isFile()) return null;
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != key) return null;
+
+            final int count = buffer.getInt();
+            // Each item takes at least a name length, value and weight, so a count the rest of the file can't hold is corrupt.
+            if (count < 0 || count > buffer.remaining() / (Short.BYTES + Long.BYTES + Double.BYTES)) return null;
+
+            final List<ITreasureItem> treasureItems = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                final byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                final long value = buffer.getLong();
+                final double weight = buffer.getDouble();
+
+                // Hold the snapshot to the same rules as the JSONs it was made from.
+                if (!(weight > 0) || Double.isInfinite(weight)) return null;
+
+                treasureItems.add(new TreasureItem(i, new String(name, StandardCharsets.UTF_8), value, weight));
+            }
+
+            return treasureItems;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // A truncated or corrupt snapshot is simply rebuilt from the JSONs.
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given items. The snapshot is written to a temporary file and moved into place, so a reader never sees
+     * a partly written snapshot.
+     *
+     * @param file The snapshot file.
+     * @param key The key of the treasure JSONs.
+     * @param treasureItems The items in id order.
+     */
+    static void write (final File file, final long key, final List<ITreasureItem> treasureItems) throws IOException {
+        final List<byte[]> names = new ArrayList<>(treasureItems.size());
+        int size = 4 + 4 + 8 + 4;
+
+        for (final ITreasureItem treasureItem : treasureItems) {
+            final byte[] name = treasureItem.getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IOException("Treasure item name '" + treasureItem.getName() + "' is too long to snapshot.");
+
+            names.add(name);
+            size += 2 + name.length + 8 + 8;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size).putInt(MAGIC).putInt(VERSION).putLong(key).putInt(treasureItems.size());
+
+        for (int i = 0; i < treasureItems.size(); i++) {
+            final byte[] name = names.get(i);
+            buffer.putShort((short) name.length).put(name).putLong(treasureItems.get(i).getValue()).putDouble(treasureItems.get(i).getWeight());
+        }
+
+        buffer.flip();
+
+        final Path path = file.toPath().toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        final Path temporaryPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            try (final FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+}
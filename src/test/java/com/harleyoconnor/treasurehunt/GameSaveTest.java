@@ -0,0 +1,112 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.TreasureBoard;
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Harley O'Connor
+ */
+public class GameSaveTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void registerTreasure () {
+        TestGames.registerTreasure();
+    }
+
+    @Test
+    public void loadRestoresSavedGame () throws IOException {
+        final TreasureHuntGame game = new TreasureHuntGame(12, 8, TestGames.createPlayers(3, 12, new SplittableRandomSource(1)),
+                new SplittableRandomSource(2), null);
+        game.gameLoop();
+
+        final File file = this.folder.newFile("game.thgs");
+        game.save(file);
+        final TreasureHuntGame loaded = TreasureHuntGame.load(file, new SplittableRandomSource(3), null);
+
+        assertArrayEquals(getState(game), getState(loaded));
+        assertEquals(game.getGuesses(), loaded.getGuesses());
+        assertEquals(game.getRound(), loaded.getRound());
+        assertEquals(game.getTreasureEaten(), loaded.getTreasureEaten());
+        assertEquals(game.getItemsStolen(), loaded.getItemsStolen());
+
+        assertEquals(game.getPlayers().size(), loaded.getPlayers().size());
+
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            final Player player = game.getPlayers().get(i);
+            final Player loadedPlayer = loaded.getPlayers().get(i);
+
+            assertEquals(player.getName(), loadedPlayer.getName());
+            assertEquals(player.getGold(), loadedPlayer.getGold());
+            for (int id = 0; id < game.getTreasureRegistry().size(); id++)
+                assertEquals(player.getTreasureCount(id), loadedPlayer.getTreasureCount(id));
+        }
+
+        assertEquals(game.getMonsters().size(), loaded.getMonsters().size());
+
+        for (int i = 0; i < game.getMonsters().size(); i++) {
+            final Monster monster = game.getMonsters().get(i);
+            final Monster loadedMonster = loaded.getMonsters().get(i);
+
+            assertEquals(monster.getStealth(), loadedMonster.getStealth());
+            assertEquals(monster.getX(), loadedMonster.getX());
+            assertEquals(monster.getY(), loadedMonster.getY());
+            assertNotNull(loaded.getTreasureGrid().getMonster(loadedMonster.getX(), loadedMonster.getY()));
+        }
+    }
+
+    /**
+     * However a save is cut short, loading it must fail with an IOException rather than anything thrown from inside the board.
+     */
+    @Test
+    public void truncatedSaveFailsToLoad () throws IOException {
+        final TreasureHuntGame game = new TreasureHuntGame(8, 4, TestGames.createPlayers(2, 8, new SplittableRandomSource(4)),
+                new SplittableRandomSource(5), null);
+        game.gameLoop();
+
+        final File file = this.folder.newFile("game.thgs");
+        game.save(file);
+        final byte[] save = Files.readAllBytes(file.toPath());
+
+        for (int length = 0; length < save.length; length++) {
+            Files.write(file.toPath(), Arrays.copyOf(save, length));
+
+            try {
+                TreasureHuntGame.load(file, new SplittableRandomSource(6), null);
+                fail("Loaded a save cut short to " + length + " of " + save.length + " bytes.");
+            } catch (IOException e) {
+                // Expected.
+            }
+        }
+    }
+
+    /**
+     * @return The board's packed arrays, as written to a save.
+     */
+    private static byte[] getState (final TreasureHuntGame game) {
+        final TreasureBoard board = (TreasureBoard) game.getTreasureGrid();
+        final ByteBuffer buffer = ByteBuffer.allocate(board.getStateSize());
+        board.writeState(buffer);
+        return buffer.array();
+    }
+
+}
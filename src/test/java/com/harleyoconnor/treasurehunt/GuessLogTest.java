@@ -0,0 +1,58 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class GuessLogTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void registerTreasure () {
+        TestGames.registerTreasure();
+    }
+
+    /**
+     * A replayed game must print exactly what the original did, board renders and results included.
+     */
+    @Test
+    public void replayPrintsTheSameGame () throws IOException {
+        for (final int boardSize : new int[] {5, 10, 40}) {
+            final long seed = 1234L + boardSize;
+            final File file = this.folder.newFile("game-" + boardSize + ".thgl");
+
+            final ByteArrayOutputStream original = new ByteArrayOutputStream();
+            final List<Player> players = TestGames.createPlayers(3, boardSize, new SplittableRandomSource(~seed));
+            final TreasureHuntGame game = new TreasureHuntGame(boardSize, 20, players, new SplittableRandomSource(seed), new PrintStream(original, true));
+
+            try (final GuessLog guessLog = GuessLog.create(file, seed, boardSize, 20, players)) {
+                game.setGuessLog(guessLog);
+                game.gameLoop();
+            }
+
+            final ByteArrayOutputStream replayed = new ByteArrayOutputStream();
+            GuessLog.replay(file, new PrintStream(replayed, true)).gameLoop();
+
+            assertTrue(original.size() > 0);
+            assertArrayEquals("Replay of the game on a board of size " + boardSize, original.toByteArray(), replayed.toByteArray());
+        }
+    }
+
+}
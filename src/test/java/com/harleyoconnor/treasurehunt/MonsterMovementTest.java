@@ -0,0 +1,107 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Harley O'Connor
+ */
+public class MonsterMovementTest {
+
+    @BeforeClass
+    public static void registerTreasure () {
+        TestGames.registerTreasure();
+    }
+
+    @Test
+    public void boxedInMonstersStayPut () {
+        // Fill every element of a 3x3 board with a monster, so none of them has anywhere to go.
+        final TreasureHuntGame game = createGame(3, 1);
+        game.addMonsters(9);
+
+        final int[] positions = getPositions(game.getMonsters());
+        final int treasureLeft = TestGames.countTreasureLeft(game.getTreasureGrid());
+
+        for (int round = 0; round < 10; round++) {
+            game.moveMonsters();
+
+            assertArrayEquals(positions, getPositions(game.getMonsters()));
+            assertMonstersOnBoard(game);
+        }
+
+        assertEquals(0, game.getTreasureEaten());
+        assertEquals(treasureLeft, TestGames.countTreasureLeft(game.getTreasureGrid()));
+    }
+
+    @Test
+    public void seededGamesMoveMonstersTheSameWay () {
+        for (final long seed : new long[] {1, 2, 3}) {
+            final TreasureHuntGame game = createGame(16, seed);
+            final TreasureHuntGame sameGame = createGame(16, seed);
+
+            // Crowd the board, so monsters often compete for the same elements.
+            game.addMonsters(150);
+            sameGame.addMonsters(150);
+
+            for (int round = 0; round < 50; round++) {
+                game.moveMonsters();
+                sameGame.moveMonsters();
+
+                assertArrayEquals("Round " + round + " of seed " + seed, getPositions(game.getMonsters()), getPositions(sameGame.getMonsters()));
+                assertMonstersOnBoard(game);
+            }
+
+            assertEquals(game.getTreasureEaten(), sameGame.getTreasureEaten());
+        }
+    }
+
+    private static TreasureHuntGame createGame (final int boardSize, final long seed) {
+        final SplittableRandomSource random = new SplittableRandomSource(seed);
+        return new TreasureHuntGame(boardSize, 10, TestGames.createPlayers(1, boardSize, random.split()), random, null);
+    }
+
+    /**
+     * @return The x and y of each monster, in id order.
+     */
+    private static int[] getPositions (final List<Monster> monsters) {
+        final int[] positions = new int[monsters.size() * 2];
+
+        for (int i = 0; i < monsters.size(); i++) {
+            positions[i * 2] = monsters.get(i).getX();
+            positions[i * 2 + 1] = monsters.get(i).getY();
+        }
+
+        return positions;
+    }
+
+    /**
+     * Checks every monster is on the element it thinks it's on, and no other element holds a monster.
+     */
+    private static void assertMonstersOnBoard (final TreasureHuntGame game) {
+        final ITreasureBoard board = game.getTreasureGrid();
+        int monsterCount = 0;
+
+        for (int y = 0; y < board.getSize(); y++)
+            for (int x = 0; x < board.getSize(); x++) {
+                final Monster monster = board.getMonster(x, y);
+                if (monster == null) continue;
+
+                assertSame(monster, game.getMonsters().get(monster.getId()));
+                assertEquals(x, monster.getX());
+                assertEquals(y, monster.getY());
+                monsterCount++;
+            }
+
+        assertEquals(game.getMonsters().size(), monsterCount);
+    }
+
+}
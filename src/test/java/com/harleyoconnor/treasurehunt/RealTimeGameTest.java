@@ -0,0 +1,46 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Stress tests real time games, with many players guessing at once on a small board while the monsters tick quickly, so players keep
+ * racing each other and the monsters for the same treasure.
+ *
+ * @author Harley O'Connor
+ */
+public class RealTimeGameTest {
+
+    private static final int GAMES = 20;
+
+    @BeforeClass
+    public static void registerTreasure () {
+        TestGames.registerTreasure();
+    }
+
+    /**
+     * Every treasure item placed must be accounted for exactly once, as eaten, held by a player, stolen or still on the board. A
+     * treasure item handed out twice, or lost, fails the test.
+     */
+    @Test
+    public void treasureIsConserved () throws InterruptedException {
+        for (int seed = 0; seed < GAMES; seed++) {
+            final RandomSource random = new SplittableRandomSource(seed);
+            final TreasureHuntGame game = new TreasureHuntGame(16, 2000, TestGames.createPlayers(16, 16, random.split()), random, null);
+            final int treasurePlaced = TestGames.countTreasureLeft(game.getTreasureGrid());
+
+            game.realTimeLoop(50, TimeUnit.MICROSECONDS);
+
+            final int accountedFor = game.getTreasureEaten() + TestGames.countTreasureHeld(game.getPlayers()) + game.getItemsStolen()
+                    + TestGames.countTreasureLeft(game.getTreasureGrid());
+            assertEquals("Treasure items accounted for after game " + seed, treasurePlaced, accountedFor);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.harleyoconnor.treasurehunt;
+
+import com.harleyoconnor.treasurehunt.grid.ITreasureBoard;
+import com.harleyoconnor.treasurehunt.grid.Positions;
+import com.harleyoconnor.treasurehunt.living.Player;
+import com.harleyoconnor.treasurehunt.living.ScriptedGuessStrategy;
+import com.harleyoconnor.treasurehunt.random.RandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItems;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless game setup shared by the tests, so nothing waits on standard input.
+ *
+ * @author Harley O'Connor
+ */
+final class TestGames {
+
+    /** Number of scripted guesses each player cycles through. */
+    private static final int SCRIPTED_GUESSES = 256;
+
+    private TestGames() {}
+
+    static void registerTreasure () {
+        if (TreasureItems.getRegistry().size() == 0) TreasureItems.register();
+    }
+
+    /**
+     * Creates players who each cycle through their own scripted list of random guesses.
+     */
+    static List<Player> createPlayers (final int playerCount, final int boardSize, final RandomSource random) {
+        final List<Player> players = new ArrayList<>(playerCount);
+
+        for (int i = 0; i < playerCount; i++) {
+            final long[] guesses = new long[SCRIPTED_GUESSES];
+            for (int j = 0; j < SCRIPTED_GUESSES; j++) guesses[j] = Positions.of(random.nextInt(boardSize), random.nextInt(boardSize));
+
+            players.add(new Player("player" + (i + 1), new ScriptedGuessStrategy(guesses)));
+        }
+
+        return players;
+    }
+
+    /**
+     * @return The number of treasure items on the board that haven't been taken.
+     */
+    static int countTreasureLeft (final ITreasureBoard board) {
+        int count = 0;
+
+        for (int x = 0; x < board.getSize(); x++)
+            for (int y = 0; y < board.getSize(); y++)
+                if (board.getTreasureItemId(x, y) >= 0 && !board.isTreasureItemTaken(x, y)) count++;
+
+        return count;
+    }
+
+    /**
+     * @return The total number of treasure items the given players hold.
+     */
+    static int countTreasureHeld (final List<Player> players) {
+        int count = 0;
+        for (final Player player : players) count += player.getTreasureCount();
+        return count;
+    }
+
+}
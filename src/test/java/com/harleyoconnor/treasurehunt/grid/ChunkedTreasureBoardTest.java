@@ -0,0 +1,71 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.treasure.TreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class ChunkedTreasureBoardTest {
+
+    private static final int SIZE = 2048;
+
+    private static final TreasureRegistry REGISTRY = new TreasureRegistry(Arrays.asList(new TreasureItem(0, "Gold", 5),
+            new TreasureItem(1, "Silver", 2)));
+
+    @Test
+    public void emptyElementsCantBeTaken () {
+        final ChunkedTreasureBoard board = new ChunkedTreasureBoard(SIZE, REGISTRY, SIZE * 3, 1);
+        final long empty = findElement(board, false);
+        final int x = Positions.getX(empty);
+        final int y = Positions.getY(empty);
+
+        board.setTreasureItemTaken(x, y, false);
+
+        assertTrue(board.isTreasureItemTaken(x, y));
+        assertFalse(board.takeTreasureItem(x, y));
+        assertNull(board.getTreasureItem(x, y));
+    }
+
+    @Test
+    public void takenTreasureSurvivesEviction () {
+        final ChunkedTreasureBoard board = new ChunkedTreasureBoard(SIZE, REGISTRY, SIZE * 3, 2);
+        final long treasure = findElement(board, true);
+        final int x = Positions.getX(treasure);
+        final int y = Positions.getY(treasure);
+        final int treasureItemId = board.getTreasureItemId(x, y);
+
+        assertTrue(board.takeTreasureItem(x, y));
+        board.setDisplayText(x, y, 'X');
+
+        // Touch every chunk, which is far more than are cached, so the first chunk is evicted and generated again.
+        for (int chunkY = 0; chunkY < SIZE; chunkY += 64)
+            for (int chunkX = 0; chunkX < SIZE; chunkX += 64)
+                board.getTreasureItemId(chunkX, chunkY);
+
+        assertEquals(treasureItemId, board.getTreasureItemId(x, y));
+        assertTrue(board.isTreasureItemTaken(x, y));
+        assertFalse(board.takeTreasureItem(x, y));
+        assertEquals('X', board.getDisplayText(x, y));
+    }
+
+    /**
+     * @return The first element in the top left chunk which does or doesn't hold treasure.
+     */
+    private static long findElement (final ITreasureBoard board, final boolean treasure) {
+        for (int y = 0; y < 64; y++)
+            for (int x = 0; x < 64; x++)
+                if ((board.getTreasureItemId(x, y) >= 0) == treasure) return Positions.of(x, y);
+
+        throw new AssertionError("No element " + (treasure ? "with" : "without") + " treasure in the first chunk.");
+    }
+
+}
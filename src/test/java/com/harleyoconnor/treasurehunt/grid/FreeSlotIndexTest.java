@@ -0,0 +1,115 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class FreeSlotIndexTest {
+
+    /** Capacities either side of word boundaries, and large enough that the tree walk takes several steps. */
+    private static final int[] CAPACITIES = {1, 63, 64, 65, 127, 128, 129, 200, 64 * 5, 64 * 7 + 3, 10_000};
+
+    @Test
+    public void freeSlotsAreFoundByRank () {
+        for (final int capacity : CAPACITIES) {
+            final FreeSlotIndex freeSlots = new FreeSlotIndex(capacity);
+            final BitSet occupied = new BitSet(capacity);
+            final SplittableRandomSource random = new SplittableRandomSource(capacity);
+
+            assertMatches(occupied, freeSlots);
+
+            for (int i = 0; i < capacity * 4; i++) {
+                final int slot = random.nextInt(capacity);
+
+                // Fill up more often than not, so the index passes through nearly full states too.
+                if (random.nextInt(3) == 0) {
+                    freeSlots.free(slot);
+                    occupied.clear(slot);
+                } else {
+                    freeSlots.occupy(slot);
+                    occupied.set(slot);
+                }
+
+                if (i % Math.max(16, capacity / 8) == 0) assertMatches(occupied, freeSlots);
+            }
+
+            assertMatches(occupied, freeSlots);
+        }
+    }
+
+    @Test
+    public void wordBoundarySlotsAreFound () {
+        final FreeSlotIndex freeSlots = new FreeSlotIndex(64 * 4);
+
+        // Leave free only the last slot of each word and the first slot of the next, apart from slot 0.
+        for (int slot = 0; slot < 64 * 4; slot++)
+            if ((slot & 63) != 63 && ((slot & 63) != 0 || slot == 0)) freeSlots.occupy(slot);
+
+        assertEquals(7, freeSlots.getFreeCount());
+        assertEquals(63, freeSlots.getFreeSlot(0));
+        assertEquals(64, freeSlots.getFreeSlot(1));
+        assertEquals(127, freeSlots.getFreeSlot(2));
+        assertEquals(128, freeSlots.getFreeSlot(3));
+        assertEquals(191, freeSlots.getFreeSlot(4));
+        assertEquals(192, freeSlots.getFreeSlot(5));
+        assertEquals(255, freeSlots.getFreeSlot(6));
+
+        assertEquals(2, freeSlots.getFreeCount(63, 65));
+        assertEquals(64, freeSlots.getFreeSlot(63, 65, 1));
+        assertEquals(127, freeSlots.getFreeSlot(65, 200, 0));
+    }
+
+    @Test
+    public void slotsPastCapacityAreNeverFree () {
+        final long[] occupied = new long[2];
+        occupied[0] = 0xFFFF_FFFF_FFFF_FFF0L;
+        final FreeSlotIndex freeSlots = new FreeSlotIndex(70, occupied);
+
+        // Four free slots in the first word, and six in the second before the capacity.
+        assertEquals(10, freeSlots.getFreeCount());
+        assertEquals(3, freeSlots.getFreeSlot(3));
+        assertEquals(64, freeSlots.getFreeSlot(4));
+        assertEquals(69, freeSlots.getFreeSlot(9));
+        assertTrue(freeSlots.isOccupied(4));
+        assertFalse(freeSlots.isOccupied(69));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rankPastFreeCountIsRejected () {
+        final FreeSlotIndex freeSlots = new FreeSlotIndex(100);
+        freeSlots.occupy(5);
+        freeSlots.getFreeSlot(99);
+    }
+
+    /**
+     * Checks the index against a plain bit set, finding every free slot by rank and counting the free slots of ranges around word
+     * boundaries.
+     */
+    private static void assertMatches (final BitSet occupied, final FreeSlotIndex freeSlots) {
+        final int capacity = freeSlots.getCapacity();
+        assertEquals(capacity - occupied.cardinality(), freeSlots.getFreeCount());
+
+        int rank = 0;
+        for (int slot = occupied.nextClearBit(0); slot < capacity; slot = occupied.nextClearBit(slot + 1))
+            assertEquals("Free slot of rank " + rank + " with capacity " + capacity, slot, freeSlots.getFreeSlot(rank++));
+
+        for (int from = 0; from < capacity; from += 61) {
+            final int to = Math.min(capacity, from + 67);
+            final int rangeFreeCount = to - from - occupied.get(from, to).cardinality();
+            assertEquals(rangeFreeCount, freeSlots.getFreeCount(from, to));
+
+            int rangeRank = 0;
+            for (int slot = occupied.nextClearBit(from); slot < to; slot = occupied.nextClearBit(slot + 1))
+                assertEquals(slot, freeSlots.getFreeSlot(from, to, rangeRank++));
+        }
+    }
+
+}
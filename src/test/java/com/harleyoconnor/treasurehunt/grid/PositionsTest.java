@@ -0,0 +1,80 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Harley O'Connor
+ */
+public class PositionsTest {
+
+    private static final int LARGE_BOARD = 20_000;
+
+    @Test
+    public void columnsAreBijectiveBase26 () {
+        final String[] columns = {"A", "B", "Z", "AA", "AB", "AZ", "BA", "ZZ", "AAA", "AAZ", "ABA"};
+        final int[] xs = {0, 1, 25, 26, 27, 51, 52, 701, 702, 727, 728};
+
+        for (int i = 0; i < columns.length; i++) {
+            assertEquals(Positions.of(xs[i], 0), Positions.parse(columns[i] + "1", LARGE_BOARD));
+            assertEquals(columns[i] + "1", Positions.toLabel(Positions.of(xs[i], 0)));
+        }
+    }
+
+    @Test
+    public void labelsRoundTrip () {
+        final byte[] buffer = new byte[8];
+
+        for (int x = 0; x < LARGE_BOARD; x++) {
+            final long position = Positions.of(x, LARGE_BOARD - 1 - x);
+            final String label = Positions.toLabel(position);
+
+            assertEquals(label, position, Positions.parse(label, LARGE_BOARD));
+            assertEquals(label, position, Positions.parse(label.toLowerCase(), LARGE_BOARD));
+
+            final int end = Positions.writeColumnLabel(x, buffer, 1);
+            assertEquals(1 + Positions.getColumnLabelLength(x), end);
+            assertEquals(Positions.appendColumnLabel(new StringBuilder(), x).toString(), new String(buffer, 1, end - 1, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void labelsAreCheckedAgainstTheBoard () {
+        assertEquals(Positions.of(25, 25), Positions.parse("Z26", 26));
+        assertEquals(Positions.NONE, Positions.parse("AA1", 26));
+        assertEquals(Positions.NONE, Positions.parse("Z27", 26));
+        assertEquals(Positions.NONE, Positions.parse("A0", 26));
+    }
+
+    @Test
+    public void invalidLabelsAreNone () {
+        final String[] labels = {"", "   ", "A", "7", "1A", "A-1", "A1B", "A 1", "@1", "[1", "`1", "{1", "\u00C41", "A1.5",
+                "ZZZZZZZZZZZZZZZZ1", "A99999999999999999999"};
+
+        for (final String label : labels)
+            assertEquals("'" + label + "'", Positions.NONE, Positions.parse(label, LARGE_BOARD));
+    }
+
+    @Test
+    public void whitespaceAroundLabelsIsIgnored () {
+        assertEquals(Positions.of(1, 6), Positions.parse(" \tb7\n", 10));
+        assertEquals(Positions.of(1, 6), Positions.parse("xxB7 yy", 2, 5, 10));
+    }
+
+    @Test
+    public void scriptsAreParsedInOrder () {
+        assertArrayEquals(new long[] {Positions.of(0, 0), Positions.of(1, 1), Positions.of(26, 2), Positions.of(2, 9)},
+                Positions.parseAll("A1, b2\nAA3,,\r\n\tC10 ", 30));
+        assertArrayEquals(new long[0], Positions.parseAll(" ,\n", 30));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scriptsWithInvalidLabelsAreRejected () {
+        Positions.parseAll("A1 B2 AB3", 26);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.harleyoconnor.treasurehunt.grid;
+
+import com.harleyoconnor.treasurehunt.living.Monster;
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class TreasureBoardTest {
+
+    /** Not a multiple of 64, so rows straddle the words of the taken bit set. */
+    private static final int SIZE = 13;
+
+    private static final TreasureRegistry REGISTRY = new TreasureRegistry(Arrays.asList(new TreasureItem(0, "Gold", 5),
+            new TreasureItem(1, "Silver", 2), new TreasureItem(2, "Bronze", 1)));
+
+    @Test
+    public void elementsHoldTheirOwnState () {
+        final TreasureBoard board = new TreasureBoard(SIZE, REGISTRY);
+
+        for (int y = 0; y < SIZE; y++)
+            for (int x = 0; x < SIZE; x++) {
+                board.setTreasureItem(x, y, (x + y) % REGISTRY.size());
+                board.setDisplayText(x, y, (char) ('a' + (x * SIZE + y) % 26));
+            }
+
+        // Take every third element, which only changes those elements.
+        for (int y = 0; y < SIZE; y++)
+            for (int x = 0; x < SIZE; x++)
+                if ((y * SIZE + x) % 3 == 0) assertTrue(board.takeTreasureItem(x, y));
+
+        for (int y = 0; y < SIZE; y++)
+            for (int x = 0; x < SIZE; x++) {
+                assertEquals((x + y) % REGISTRY.size(), board.getTreasureItemId(x, y));
+                assertSame(REGISTRY.get((x + y) % REGISTRY.size()), board.getTreasureItem(x, y));
+                assertEquals((y * SIZE + x) % 3 == 0, board.isTreasureItemTaken(x, y));
+                assertEquals((char) ('a' + (x * SIZE + y) % 26), board.getDisplayText(x, y));
+            }
+
+        assertFalse(board.isTreasureSlotAvailable());
+    }
+
+    @Test
+    public void treasureIsOnlyTakenOnce () {
+        final TreasureBoard board = new TreasureBoard(SIZE, REGISTRY);
+        board.setTreasureItem(4, 9, 1);
+
+        assertFalse(board.isTreasureItemTaken(4, 9));
+        assertTrue(board.takeTreasureItem(4, 9));
+        assertFalse(board.takeTreasureItem(4, 9));
+
+        board.setTreasureItemTaken(4, 9, false);
+        assertTrue(board.takeTreasureItem(4, 9));
+
+        // Replacing the treasure item puts fresh treasure there.
+        board.setTreasureItem(4, 9, 2);
+        assertEquals(2, board.getTreasureItemId(4, 9));
+        assertTrue(board.takeTreasureItem(4, 9));
+    }
+
+    @Test
+    public void emptyElementsHoldNothing () {
+        final TreasureBoard board = new TreasureBoard(SIZE, REGISTRY);
+
+        board.setTreasureItemTaken(0, 0, false);
+
+        assertEquals(-1, board.getTreasureItemId(0, 0));
+        assertNull(board.getTreasureItem(0, 0));
+        assertNull(board.getMonster(0, 0));
+        assertTrue(board.isTreasureSlotAvailable());
+    }
+
+    @Test
+    public void monstersAreSetAndCleared () {
+        final TreasureBoard board = new TreasureBoard(SIZE, REGISTRY);
+        final Monster first = new Monster(0, Monster.MIN_STEALTH);
+        final Monster second = new Monster(1, Monster.MAX_STEALTH);
+
+        board.setMonster(SIZE - 1, 0, first);
+        board.setMonster(0, SIZE - 1, second);
+
+        assertSame(first, board.getMonster(SIZE - 1, 0));
+        assertSame(second, board.getMonster(0, SIZE - 1));
+        assertNull(board.getMonster(0, 0));
+
+        board.clearMonster(SIZE - 1, 0);
+
+        assertNull(board.getMonster(SIZE - 1, 0));
+        assertSame(second, board.getMonster(0, SIZE - 1));
+    }
+
+    @Test
+    public void fullWindowHasNoMonsterSlot () {
+        final TreasureBoard board = new TreasureBoard(SIZE, REGISTRY);
+        final SplittableRandomSource random = new SplittableRandomSource(1);
+
+        for (int y = 4; y <= 6; y++)
+            for (int x = 4; x <= 6; x++)
+                board.setMonster(x, y, new Monster(y * SIZE + x, Monster.MIN_STEALTH));
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(Positions.NONE, board.getRandomMonsterSlot(4, 4, 6, 6, random));
+
+        // With one element of the window free, that element is always picked.
+        board.clearMonster(6, 5);
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(Positions.of(6, 5), board.getRandomMonsterSlot(4, 4, 6, 6, random));
+    }
+
+}
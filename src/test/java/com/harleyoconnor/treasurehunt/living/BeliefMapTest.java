@@ -0,0 +1,67 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class BeliefMapTest {
+
+    private static final int[] BOARD_SIZES = {1, 2, 3, 5, 8, 9, 10, 16, 100};
+
+    @Test
+    public void unseenMonstersAreSomewhereOnTheBoard () {
+        for (final int boardSize : BOARD_SIZES) {
+            if (boardSize == 1) continue; // Monsters can't move, so have no long run spread.
+
+            final BeliefMap beliefs = new BeliefMap(boardSize);
+            double expectedMonsters = 0;
+
+            for (int y = 0; y < boardSize; y++)
+                for (int x = 0; x < boardSize; x++)
+                    expectedMonsters += beliefs.getMonsterProbability(x, y);
+
+            assertEquals("Board of size " + boardSize, 4, expectedMonsters, 1e-9);
+        }
+    }
+
+    @Test
+    public void edgesAreSaferThanTheMiddle () {
+        final BeliefMap beliefs = new BeliefMap(16);
+        for (int round = 0; round < 10; round++) beliefs.nextRound();
+
+        assertTrue(beliefs.getTreasureProbability(0, 0) > beliefs.getTreasureProbability(0, 8));
+        assertTrue(beliefs.getTreasureProbability(0, 8) > beliefs.getTreasureProbability(8, 8));
+        assertTrue(beliefs.getMonsterProbability(0, 0) < beliefs.getMonsterProbability(0, 8));
+        assertTrue(beliefs.getMonsterProbability(0, 8) < beliefs.getMonsterProbability(8, 8));
+    }
+
+    @Test
+    public void treasureAveragesToItsDensity () {
+        for (final int boardSize : BOARD_SIZES) {
+            final BeliefMap beliefs = new BeliefMap(boardSize);
+            final double density = beliefs.getTreasureProbability(0, 0);
+
+            // Long after every element would have been eaten many times over, chances must still be numbers and average to the density.
+            for (int round = 0; round < 100_000; round++) {
+                beliefs.nextRound();
+                if (round % 9_999 != 0) continue;
+
+                double total = 0;
+
+                for (int y = 0; y < boardSize; y++)
+                    for (int x = 0; x < boardSize; x++) {
+                        final double probability = beliefs.getTreasureProbability(x, y);
+                        assertTrue("Board of size " + boardSize + " in round " + round, probability >= 0 && probability < Double.POSITIVE_INFINITY);
+                        total += probability;
+                    }
+
+                assertEquals("Board of size " + boardSize + " in round " + round, density, total / ((double) boardSize * boardSize), density * 1e-9);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.harleyoconnor.treasurehunt.living;
+
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import com.harleyoconnor.treasurehunt.treasure.ITreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureItem;
+import com.harleyoconnor.treasurehunt.treasure.TreasureRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class PlayerTest {
+
+    private static final TreasureRegistry REGISTRY = new TreasureRegistry(Arrays.asList(new TreasureItem(0, "Gold", 5),
+            new TreasureItem(1, "Silver", 2), new TreasureItem(2, "Diamond", 50), new TreasureItem(3, "Copper", 1),
+            new TreasureItem(4, "Ruby", 20), new TreasureItem(5, "Pearl", 12), new TreasureItem(6, "Emerald", 30),
+            new TreasureItem(7, "Opal", 8), new TreasureItem(8, "Jade", 9), new TreasureItem(9, "Amber", 3)));
+
+    @Test
+    public void stealingKeepsTreasureConsistent () {
+        final Player player = new Player("player", new ScriptedGuessStrategy(new long[] {0}));
+        final SplittableRandomSource random = new SplittableRandomSource(3);
+        final int[] expectedCounts = new int[REGISTRY.size()];
+
+        // Interleave finding and stealing, so swap-removes happen at every position of both arrays, then steal everything.
+        for (int i = 0; i < 5_000; i++) {
+            if (random.nextInt(5) < 3) {
+                final ITreasureItem treasureItem = REGISTRY.get(random.nextInt(REGISTRY.size()));
+                player.addTreasure(treasureItem);
+                expectedCounts[treasureItem.getId()]++;
+            } else {
+                steal(player, random, expectedCounts);
+            }
+
+            assertConsistent(player, expectedCounts);
+        }
+
+        while (player.getTreasureCount() > 0) {
+            steal(player, random, expectedCounts);
+            assertConsistent(player, expectedCounts);
+        }
+
+        assertNull(player.stealRandomTreasure(REGISTRY, random));
+        assertEquals(0, player.getGold());
+        assertEquals(0, player.getDistinctTreasureCount());
+    }
+
+    private static void steal (final Player player, final SplittableRandomSource random, final int[] expectedCounts) {
+        final ITreasureItem treasureItem = player.stealRandomTreasure(REGISTRY, random);
+
+        if (treasureItem == null) {
+            assertEquals(0, player.getTreasureCount());
+        } else {
+            assertTrue(expectedCounts[treasureItem.getId()]-- > 0);
+        }
+    }
+
+    /**
+     * Checks the player's counts, gold and distinct items all agree with the expected count of each item.
+     */
+    private static void assertConsistent (final Player player, final int[] expectedCounts) {
+        int treasureCount = 0;
+        int distinctCount = 0;
+        long gold = 0;
+
+        for (int id = 0; id < expectedCounts.length; id++) {
+            assertEquals(expectedCounts[id], player.getTreasureCount(id));
+            treasureCount += expectedCounts[id];
+            if (expectedCounts[id] > 0) distinctCount++;
+            gold += expectedCounts[id] * REGISTRY.get(id).getValue();
+        }
+
+        assertEquals(treasureCount, player.getTreasureCount());
+        assertEquals(distinctCount, player.getDistinctTreasureCount());
+        assertEquals(gold, player.getGold());
+
+        // Each distinct item is listed exactly once, with its count.
+        final int[] listedCounts = new int[expectedCounts.length];
+        player.forEachTreasure(REGISTRY, (treasureItem, count) -> {
+            assertEquals(0, listedCounts[treasureItem.getId()]);
+            listedCounts[treasureItem.getId()] = count;
+        });
+        assertEquals(Arrays.toString(expectedCounts), Arrays.toString(listedCounts));
+    }
+
+}
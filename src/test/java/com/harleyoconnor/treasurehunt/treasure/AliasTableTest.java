@@ -0,0 +1,69 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Harley O'Connor
+ */
+public class AliasTableTest {
+
+    @Test
+    public void probabilitiesMatchWeights () {
+        assertMatchesWeights(new double[] {1});
+        assertMatchesWeights(new double[] {1, 1, 1, 1});
+        assertMatchesWeights(new double[] {5, 1, 0.5, 2.5, 10, 0.1});
+        assertMatchesWeights(new double[] {0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.7, 1.0 / 3});
+        assertMatchesWeights(new double[] {1e12, 1, 1e-12, 3});
+    }
+
+    @Test
+    public void zeroWeightsAreNeverSampled () {
+        final double[][] weightSets = {{0, 1}, {1, 0}, {0, 0, 0, 2, 0}, {0, 0.1, 0, 0.1, 0, 0.1, 0, 0.7, 0, 1.0 / 3}};
+
+        for (final double[] weights : weightSets) {
+            final AliasTable aliasTable = assertMatchesWeights(weights);
+            final SplittableRandomSource random = new SplittableRandomSource(weights.length);
+
+            for (int i = 0; i < weights.length; i++)
+                if (weights[i] == 0) assertEquals(0, aliasTable.getProbability(i), 0);
+
+            for (int i = 0; i < 10_000; i++)
+                assertNotEquals(0, weights[aliasTable.sample(random)], 0);
+        }
+    }
+
+    @Test
+    public void tinyWeightsAreRarelySampled () {
+        final AliasTable aliasTable = assertMatchesWeights(new double[] {1, Double.MIN_VALUE, 1e-300, 1});
+
+        // The smallest double is lost to rounding when its chance is divided between columns, so only check it stays tiny.
+        assertTrue(aliasTable.getProbability(1) >= 0 && aliasTable.getProbability(1) < 1e-300);
+        assertTrue(aliasTable.getProbability(2) > 0 && aliasTable.getProbability(2) < 1e-299);
+    }
+
+    /**
+     * Checks the chance of sampling each index is its share of the total weight, and that the chances add up to one.
+     */
+    private static AliasTable assertMatchesWeights (final double[] weights) {
+        final AliasTable aliasTable = new AliasTable(weights);
+        assertEquals(weights.length, aliasTable.size());
+
+        double totalWeight = 0;
+        for (final double weight : weights) totalWeight += weight;
+
+        double totalProbability = 0;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals("Chance of index " + i, weights[i] / totalWeight, aliasTable.getProbability(i), 1e-12);
+            totalProbability += aliasTable.getProbability(i);
+        }
+
+        assertEquals(1, totalProbability, 1e-12);
+        return aliasTable;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import com.harleyoconnor.treasurehunt.random.SplittableRandomSource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @author Harley O'Connor
+ */
+public class TreasureRegistryTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    public void randomIdsFollowWeights () {
+        final TreasureRegistry registry = new TreasureRegistry(Arrays.asList(new TreasureItem(0, "Gold", 5, 1),
+                new TreasureItem(1, "Silver", 2, 3), new TreasureItem(2, "Diamond", 50, 1e-9), new TreasureItem(3, "Copper", 1, 6)));
+        final SplittableRandomSource random = new SplittableRandomSource(7);
+        final int[] counts = new int[registry.size()];
+
+        for (int i = 0; i < DRAWS; i++)
+            counts[registry.getRandomId(random)]++;
+
+        // Well over five standard deviations, so a seed change won't make this flaky.
+        assertEquals(DRAWS * 0.1, counts[0], 1000);
+        assertEquals(DRAWS * 0.3, counts[1], 1500);
+        assertEquals(0, counts[2], 1);
+        assertEquals(DRAWS * 0.6, counts[3], 1500);
+    }
+
+    @Test
+    public void fingerprintChangesWithItems () {
+        final TreasureRegistry registry = new TreasureRegistry(Collections.singletonList(new TreasureItem(0, "Gold", 5, 1)));
+
+        assertEquals(registry.getFingerprint(), new TreasureRegistry(Collections.singletonList(new TreasureItem(0, "Gold", 5, 1))).getFingerprint());
+        assertNotEquals(registry.getFingerprint(), new TreasureRegistry(Collections.singletonList(new TreasureItem(0, "Gold", 6, 1))).getFingerprint());
+        assertNotEquals(registry.getFingerprint(), new TreasureRegistry(Collections.singletonList(new TreasureItem(0, "Gold", 5, 2))).getFingerprint());
+        assertNotEquals(registry.getFingerprint(), new TreasureRegistry(Collections.singletonList(new TreasureItem(0, "Gilt", 5, 1))).getFingerprint());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void emptyRegistryHasNoRandomIds () {
+        TreasureRegistry.EMPTY.getRandomId(new SplittableRandomSource(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idsMustMatchIndexes () {
+        new TreasureRegistry(Arrays.asList(new TreasureItem(0, "Gold", 5), new TreasureItem(2, "Silver", 2)));
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.harleyoconnor.treasurehunt.treasure;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Harley O'Connor
+ */
+public class TreasureSnapshotTest {
+
+    private static final long KEY = 0x1234_5678_9ABCL;
+
+    /** Offset of the item count, after the magic number, format version and key. */
+    private static final int COUNT_OFFSET = 4 + 4 + 8;
+    /** Offset of the first item's weight, after the item count, name length, "Gold" and value. */
+    private static final int FIRST_WEIGHT_OFFSET = COUNT_OFFSET + 4 + 2 + 4 + 8;
+
+    private static final List<ITreasureItem> TREASURE_ITEMS = Arrays.asList(new TreasureItem(0, "Gold", 5, 2.5),
+            new TreasureItem(1, "Silver", 2, 0.25));
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readReturnsWrittenItems () throws IOException {
+        final File file = this.write();
+        final List<ITreasureItem> treasureItems = TreasureSnapshot.read(file, KEY);
+
+        assertNotNull(treasureItems);
+        assertEquals(TREASURE_ITEMS.size(), treasureItems.size());
+
+        for (int i = 0; i < TREASURE_ITEMS.size(); i++) {
+            assertEquals(i, treasureItems.get(i).getId());
+            assertEquals(TREASURE_ITEMS.get(i).getName(), treasureItems.get(i).getName());
+            assertEquals(TREASURE_ITEMS.get(i).getValue(), treasureItems.get(i).getValue());
+            assertEquals(TREASURE_ITEMS.get(i).getWeight(), treasureItems.get(i).getWeight(), 0);
+        }
+    }
+
+    @Test
+    public void readRejectsOtherKey () throws IOException {
+        assertNull(TreasureSnapshot.read(this.write(), KEY + 1));
+    }
+
+    @Test
+    public void readRejectsCountLargerThanFile () throws IOException {
+        final File file = this.write();
+        this.patch(file, COUNT_OFFSET, ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array());
+
+        assertNull(TreasureSnapshot.read(file, KEY));
+    }
+
+    @Test
+    public void readRejectsInvalidWeights () throws IOException {
+        for (final double weight : new double[] {0, -1, Double.NaN, Double.POSITIVE_INFINITY}) {
+            final File file = this.write();
+            this.patch(file, FIRST_WEIGHT_OFFSET, ByteBuffer.allocate(8).putDouble(weight).array());
+
+            assertNull("Snapshot with weight " + weight, TreasureSnapshot.read(file, KEY));
+        }
+    }
+
+    @Test
+    public void readRejectsTruncatedSnapshot () throws IOException {
+        final File file = this.write();
+        final byte[] snapshot = Files.readAllBytes(file.toPath());
+
+        for (int length = 0; length < snapshot.length; length++) {
+            Files.write(file.toPath(), Arrays.copyOf(snapshot, length));
+            assertNull("Snapshot cut short to " + length + " bytes", TreasureSnapshot.read(file, KEY));
+        }
+    }
+
+    private File write () throws IOException {
+        final File file = new File(this.folder.getRoot(), "treasure.bin");
+        TreasureSnapshot.write(file, KEY, TREASURE_ITEMS);
+        return file;
+    }
+
+    private void patch (final File file, final int offset, final byte[] bytes) throws IOException {
+        final byte[] snapshot = Files.readAllBytes(file.toPath());
+        System.arraycopy(bytes, 0, snapshot, offset, bytes.length);
+        Files.write(file.toPath(), snapshot);
+    }
+
+}